@@ -0,0 +1,78 @@
+package com.engineerpro.example.loadtool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Send to receive latency of every delivered message, twice: from the time
+ * the fixed-rate schedule meant to send it (corrected for coordinated
+ * omission, so a stall counts against every message that should have gone
+ * out during it) and from the time it was actually sent. Only messages sent
+ * in the current phase are recorded, so a backlog left over from the warmup
+ * does not count toward the measurement. Recording holds a read lock and a
+ * phase change the write lock, so a message checked against the old phase
+ * cannot land in the new one's histograms.
+ */
+class LatencyRecorder {
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  record Snapshot(Histogram corrected, Histogram uncorrected, long received) {
+  }
+
+  private final Recorder corrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+  private final Recorder uncorrected = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+  private final LongAdder received = new LongAdder();
+  private final ReadWriteLock phaseLock = new ReentrantReadWriteLock();
+  private long phase;
+
+  /**
+   * Starts recording a new phase and discards everything recorded so far.
+   */
+  long startPhase() {
+    phaseLock.writeLock().lock();
+    try {
+      phase++;
+      snapshot();
+      return phase;
+    } finally {
+      phaseLock.writeLock().unlock();
+    }
+  }
+
+  void record(long messagePhase, long intendedNanos, long sentNanos, long receivedNanos) {
+    phaseLock.readLock().lock();
+    try {
+      if (messagePhase != phase) {
+        return;
+      }
+      corrected.recordValue(Math.min(receivedNanos - intendedNanos, HIGHEST_TRACKABLE_NANOS));
+      uncorrected.recordValue(Math.min(receivedNanos - sentNanos, HIGHEST_TRACKABLE_NANOS));
+      received.increment();
+    } finally {
+      phaseLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Everything recorded since the phase started or the previous snapshot.
+   */
+  Snapshot snapshot() {
+    return new Snapshot(corrected.getIntervalHistogram(), uncorrected.getIntervalHistogram(),
+        received.sumThenReset());
+  }
+
+  static String format(Histogram histogram) {
+    return String.format("p50=%.2f p99=%.2f p999=%.2f max=%.2f ms", millis(histogram.getValueAtPercentile(50)),
+        millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+        millis(histogram.getMaxValue()));
+  }
+
+  static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
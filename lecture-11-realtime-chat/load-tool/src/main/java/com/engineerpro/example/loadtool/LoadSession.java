@@ -0,0 +1,129 @@
+package com.engineerpro.example.loadtool;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * One user's STOMP session. Each chat message it sends carries its phase and
+ * the intended and actual send times in its content, and the receiving session records
+ * the latency when the message arrives.
+ */
+class LoadSession extends StompSessionHandlerAdapter {
+  static final String LOAD_USER_HEADER = "X-Load-User";
+  private static final String CONTENT_PREFIX = "lt ";
+
+  private final String username;
+  private final ObjectMapper objectMapper;
+  private final LatencyRecorder recorder;
+  private final LongAdder errors;
+  private volatile StompSession session;
+
+  LoadSession(String username, ObjectMapper objectMapper, LatencyRecorder recorder, LongAdder errors) {
+    this.username = username;
+    this.objectMapper = objectMapper;
+    this.recorder = recorder;
+    this.errors = errors;
+  }
+
+  String getUsername() {
+    return username;
+  }
+
+  CompletableFuture<StompSession> connect(WebSocketStompClient client, String url) {
+    WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+    handshakeHeaders.add(LOAD_USER_HEADER, username);
+    return client.connectAsync(url, handshakeHeaders, new StompHeaders(), this);
+  }
+
+  @Override
+  public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+    this.session = session;
+    session.subscribe("/user/queue/messages", new StompFrameHandler() {
+      @Override
+      public Type getPayloadType(StompHeaders headers) {
+        return byte[].class;
+      }
+
+      @Override
+      public void handleFrame(StompHeaders headers, Object payload) {
+        onMessage((byte[]) payload);
+      }
+    });
+  }
+
+  void send(String receiver, long phase, long intendedNanos, long sentNanos) throws Exception {
+    ObjectNode input = objectMapper.createObjectNode()
+        .put("receiver", receiver)
+        .put("content", CONTENT_PREFIX + phase + " " + intendedNanos + " " + sentNanos);
+    StompHeaders headers = new StompHeaders();
+    headers.setDestination("/app/chat");
+    headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+    session.send(headers, objectMapper.writeValueAsBytes(input));
+  }
+
+  boolean isConnected() {
+    StompSession current = session;
+    return current != null && current.isConnected();
+  }
+
+  void disconnect() {
+    StompSession current = session;
+    if (current != null && current.isConnected()) {
+      current.disconnect();
+    }
+  }
+
+  // ERROR frames from the server
+  @Override
+  public void handleFrame(StompHeaders headers, Object payload) {
+    errors.increment();
+  }
+
+  private void onMessage(byte[] payload) {
+    long receivedNanos = System.nanoTime();
+    try {
+      JsonNode message = objectMapper.readTree(payload);
+      // the sender gets its own message back on the same queue
+      if (!username.equals(message.path("receiver").asText())) {
+        return;
+      }
+      String content = message.path("content").asText();
+      if (!content.startsWith(CONTENT_PREFIX)) {
+        return;
+      }
+      String[] times = content.substring(CONTENT_PREFIX.length()).split(" ");
+      recorder.record(Long.parseLong(times[0]), Long.parseLong(times[1]), Long.parseLong(times[2]),
+          receivedNanos);
+    } catch (Exception e) {
+      errors.increment();
+      System.err.printf("cannot read message for %s: %s%n", username,
+          new String(payload, StandardCharsets.UTF_8));
+    }
+  }
+
+  @Override
+  public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload,
+      Throwable exception) {
+    errors.increment();
+  }
+
+  @Override
+  public void handleTransportError(StompSession session, Throwable exception) {
+    errors.increment();
+  }
+}
@@ -0,0 +1,217 @@
+package com.engineerpro.example.loadtool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Opens STOMP sessions against the chat application started with the
+ * {@code loadtest} profile and sends 1:1 messages from every session to the
+ * next one at a fixed rate. Sessions are added {@code step} at a time up to
+ * {@code sessions}; each step runs a warmup and a measured phase, and the
+ * largest step that kept p99 latency within the SLO and delivered enough of
+ * its messages is reported as the sustainable number of connections.
+ * Sending is split over {@code sender-threads} threads with a schedule each;
+ * a step in which the senders themselves fall behind their schedule by more
+ * than {@code max-send-lag-ms} at p99 ends the run as a generator limit, not
+ * a server one.
+ */
+public class LoadTool {
+  private final LoadToolOptions options;
+  private final WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final LatencyRecorder recorder = new LatencyRecorder();
+  private final LongAdder errors = new LongAdder();
+  private final List<LoadSession> sessions = new ArrayList<>();
+  private final ExecutorService senders;
+
+  private record Phase(long sent, long sendFailures, Histogram sendLag) {
+  }
+
+  LoadTool(LoadToolOptions options) {
+    this.options = options;
+    // heartbeats would need a scheduler and add nothing to the measurement
+    client.setDefaultHeartbeat(new long[] { 0, 0 });
+    senders = Executors.newFixedThreadPool(options.senderThreads(), task -> {
+      Thread thread = new Thread(task, "sender");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public static void main(String[] args) throws Exception {
+    new LoadTool(LoadToolOptions.parse(args)).run();
+  }
+
+  void run() throws Exception {
+    int sustainable = 0;
+    boolean generatorLimited = false;
+    try {
+      int target = Math.min(options.step(), options.sessions());
+      while (true) {
+        int failedConnects = connectUpTo(target);
+        if (failedConnects > 0) {
+          System.out.printf("sessions=%d: %d connects failed, stopping%n", target, failedConnects);
+          break;
+        }
+        double rate = target * options.ratePerSession();
+        sendAtRate(recorder.startPhase(), rate, options.warmup().toNanos());
+        errors.reset();
+
+        Phase phase = sendAtRate(recorder.startPhase(), rate, options.duration().toNanos());
+        drain();
+        LatencyRecorder.Snapshot snapshot = recorder.snapshot();
+        double deliveryRatio = phase.sent() == 0 ? 0 : (double) snapshot.received() / phase.sent();
+        double p99Millis = LatencyRecorder.millis(snapshot.corrected().getValueAtPercentile(99));
+        boolean ok = deliveryRatio >= options.minDeliveryRatio() && p99Millis <= options.sloP99Millis();
+        // a late sender inflates corrected latency by its own delay, so the
+        // step says nothing about the server
+        generatorLimited = phase.sendLag().getValueAtPercentile(99) > options.maxSendLag().toNanos();
+        report(target, rate, phase, snapshot, deliveryRatio, generatorLimited ? "generator behind" : ok ? "ok"
+            : "over limit");
+        if (generatorLimited || !ok) {
+          break;
+        }
+        sustainable = target;
+        if (target == options.sessions()) {
+          break;
+        }
+        target = Math.min(target + options.step(), options.sessions());
+      }
+    } finally {
+      System.out.printf("%nmax sustainable sessions: %s%d (p99 <= %.0f ms, delivered >= %.1f%%, %.2f msg/s each)%n",
+          generatorLimited ? "at least " : "", sustainable, options.sloP99Millis(),
+          options.minDeliveryRatio() * 100, options.ratePerSession());
+      if (generatorLimited) {
+        System.out.printf("the load generator could not keep its schedule (p99 send lag over %d ms); add "
+            + "--sender-threads or load machines to go further%n", options.maxSendLag().toMillis());
+      }
+      senders.shutdownNow();
+      sessions.forEach(LoadSession::disconnect);
+      client.stop();
+    }
+  }
+
+  /**
+   * Opens sessions in batches until there are {@code target}; returns how
+   * many of them could not be opened.
+   */
+  private int connectUpTo(int target) throws InterruptedException {
+    int failed = 0;
+    while (sessions.size() < target) {
+      int batchSize = Math.min(options.connectBatch(), target - sessions.size());
+      List<LoadSession> batch = new ArrayList<>(batchSize);
+      List<CompletableFuture<StompSession>> connects = new ArrayList<>(batchSize);
+      for (int i = 0; i < batchSize; i++) {
+        LoadSession session = new LoadSession(options.username(sessions.size() + i), objectMapper, recorder, errors);
+        batch.add(session);
+        connects.add(session.connect(client, options.url()));
+      }
+      for (int i = 0; i < batchSize; i++) {
+        try {
+          connects.get(i).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+          failed++;
+          System.err.printf("cannot connect %s: %s%n", batch.get(i).getUsername(), e);
+        }
+      }
+      sessions.addAll(batch);
+      if (failed > 0) {
+        return failed;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Sends {@code rate} messages per second for {@code lengthNanos}. Each
+   * sender thread takes every n-th session and an equal share of the rate on
+   * its own fixed schedule, offset from the others so the sends interleave.
+   * Messages still in flight after the drain time count as not delivered. A
+   * late send keeps its scheduled time, so falling behind shows up in the
+   * corrected latency instead of lowering the offered load; how late each
+   * send started is returned as the send lag.
+   */
+  private Phase sendAtRate(long phaseId, double rate, long lengthNanos)
+      throws InterruptedException, ExecutionException {
+    int threads = Math.min(options.senderThreads(), sessions.size());
+    long periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) * threads / rate));
+    long start = System.nanoTime();
+    List<Callable<Phase>> schedules = new ArrayList<>(threads);
+    for (int t = 0; t < threads; t++) {
+      int first = t;
+      long offset = periodNanos * t / threads;
+      schedules.add(() -> sendOnSchedule(phaseId, first, threads, start + offset, periodNanos, start + lengthNanos));
+    }
+    long sent = 0;
+    long sendFailures = 0;
+    Histogram sendLag = new Histogram(TimeUnit.MINUTES.toNanos(10), 3);
+    for (Future<Phase> result : senders.invokeAll(schedules)) {
+      Phase phase = result.get();
+      sent += phase.sent();
+      sendFailures += phase.sendFailures();
+      sendLag.add(phase.sendLag());
+    }
+    return new Phase(sent, sendFailures, sendLag);
+  }
+
+  // sends from sessions first, first + stride, ... to the session after each
+  private Phase sendOnSchedule(long phaseId, int first, int stride, long start, long periodNanos, long end) {
+    int count = sessions.size();
+    Histogram sendLag = new Histogram(TimeUnit.MINUTES.toNanos(10), 3);
+    long sent = 0;
+    long sendFailures = 0;
+    int index = first;
+    for (long intended = start; intended < end; intended += periodNanos) {
+      long now = System.nanoTime();
+      while (now < intended) {
+        LockSupport.parkNanos(intended - now);
+        now = System.nanoTime();
+      }
+      sendLag.recordValue(Math.min(now - intended, sendLag.getHighestTrackableValue()));
+      LoadSession sender = sessions.get(index);
+      LoadSession receiver = sessions.get((index + 1) % count);
+      try {
+        sender.send(receiver.getUsername(), phaseId, intended, now);
+        sent++;
+      } catch (Exception e) {
+        sendFailures++;
+      }
+      index += stride;
+      if (index >= count) {
+        index = first;
+      }
+    }
+    return new Phase(sent, sendFailures, sendLag);
+  }
+
+  private void drain() throws InterruptedException {
+    TimeUnit.NANOSECONDS.sleep(options.drain().toNanos());
+  }
+
+  private void report(int target, double rate, Phase phase, LatencyRecorder.Snapshot snapshot, double deliveryRatio,
+      String verdict) {
+    long connected = sessions.stream().filter(LoadSession::isConnected).count();
+    System.out.printf("%nsessions=%d connected=%d rate=%.0f/s sent=%d received=%d (%.2f%%) sendFailures=%d "
+        + "errors=%d -> %s%n", target, connected, rate, phase.sent(), snapshot.received(), deliveryRatio * 100,
+        phase.sendFailures(), errors.sumThenReset(), verdict);
+    System.out.println("  corrected   " + LatencyRecorder.format(snapshot.corrected()));
+    System.out.println("  uncorrected " + LatencyRecorder.format(snapshot.uncorrected()));
+    System.out.println("  send lag    " + LatencyRecorder.format(phase.sendLag()));
+  }
+}
@@ -0,0 +1,71 @@
+package com.engineerpro.example.loadtool;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+record LoadToolOptions(
+    String url,
+    int sessions,
+    int step,
+    double ratePerSession,
+    Duration warmup,
+    Duration duration,
+    Duration drain,
+    int connectBatch,
+    int senderThreads,
+    Duration maxSendLag,
+    double sloP99Millis,
+    double minDeliveryRatio,
+    String userPrefix,
+    String userDomain) {
+
+  static LoadToolOptions parse(String[] args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("expected --name=value but got " + arg);
+      }
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    int sessions = Integer.parseInt(take(values, "sessions", "1000"));
+    LoadToolOptions options = new LoadToolOptions(
+        take(values, "url", "ws://127.0.0.1:8080/ws"),
+        sessions,
+        Integer.parseInt(take(values, "step", String.valueOf(sessions))),
+        Double.parseDouble(take(values, "rate-per-session", "1")),
+        Duration.ofSeconds(Long.parseLong(take(values, "warmup-seconds", "10"))),
+        Duration.ofSeconds(Long.parseLong(take(values, "duration-seconds", "30"))),
+        Duration.ofSeconds(Long.parseLong(take(values, "drain-seconds", "5"))),
+        Integer.parseInt(take(values, "connect-batch", "100")),
+        Integer.parseInt(take(values, "sender-threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+        Duration.ofMillis(Long.parseLong(take(values, "max-send-lag-ms", "10"))),
+        Double.parseDouble(take(values, "slo-p99-ms", "200")),
+        Double.parseDouble(take(values, "min-delivery-ratio", "0.999")),
+        take(values, "user-prefix", "load-"),
+        take(values, "user-domain", "@loadtest.local"));
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("unknown options " + values.keySet());
+    }
+    if (options.sessions() < 2 || options.step() < 2) {
+      throw new IllegalArgumentException("sessions and step need at least 2 sessions to pair senders with receivers");
+    }
+    if (options.senderThreads() < 1) {
+      throw new IllegalArgumentException("sender-threads must be at least 1");
+    }
+    return options;
+  }
+
+  String username(int index) {
+    return userPrefix + index + userDomain;
+  }
+
+  private static String take(Map<String, String> values, String name, String defaultValue) {
+    String value = values.remove(name);
+    return value != null ? value : defaultValue;
+  }
+}
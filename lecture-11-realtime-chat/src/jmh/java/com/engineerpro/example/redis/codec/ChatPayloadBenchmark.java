@@ -0,0 +1,81 @@
+package com.engineerpro.example.redis.codec;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Encode and decode cost of a chat message as JSON and CBOR, and of
+ * re-encoding the JSON payload for a CBOR session. Message sizes are printed
+ * once per fork. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatPayloadBenchmark {
+  // configured like the application's mapper
+  private final ObjectMapper objectMapper = JsonMapper.builder()
+      .addModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+  private final ChatPayloadCodec codec = new ChatPayloadCodec(objectMapper, WireFormat.CBOR);
+
+  private ChatMessage message;
+  private byte[] json;
+  private byte[] cbor;
+
+  @Setup
+  public void setUp() {
+    message = ChatMessage.builder()
+        .id(7_120_334_812_045_312_001L)
+        .conversationId("5b1f0c52-8e0d-3c9a-9f43-2a7c6d1e9b08")
+        .content("are we still on for lunch tomorrow? the place near the office opens at 11")
+        .sender("nguyenvanan@gmail.com")
+        .receiver("tranthibinh@gmail.com")
+        .timestamp(LocalDateTime.of(2023, 11, 20, 12, 34, 56, 789_000_000))
+        .seq(1_532L)
+        .build();
+    json = codec.encode(message, WireFormat.JSON);
+    cbor = codec.encode(message, WireFormat.CBOR);
+    System.out.printf("%nbytes per message: json=%d cbor=%d%n", json.length, cbor.length);
+  }
+
+  @Benchmark
+  public byte[] encodeJson() {
+    return codec.encode(message, WireFormat.JSON);
+  }
+
+  @Benchmark
+  public byte[] encodeCbor() {
+    return codec.encode(message, WireFormat.CBOR);
+  }
+
+  @Benchmark
+  public ChatMessage decodeJson() {
+    return codec.decode(json, WireFormat.JSON, ChatMessage.class);
+  }
+
+  @Benchmark
+  public ChatMessage decodeCbor() {
+    return codec.decode(cbor, WireFormat.CBOR, ChatMessage.class);
+  }
+
+  // a fresh array each time, so the one-entry cache of the codec is missed
+  @Benchmark
+  public byte[] transcodeJsonToCbor() {
+    return codec.jsonToCbor(json.clone());
+  }
+}
@@ -0,0 +1,22 @@
+package com.engineerpro.example.redis.codec;
+
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads STOMP frames sent with the CBOR content type. Frames without a
+ * content type are left to the JSON converter.
+ */
+public class CborMessageConverter extends MappingJackson2MessageConverter {
+  public CborMessageConverter(ObjectMapper cborMapper) {
+    super(WireFormat.CBOR.getMimeType());
+    setObjectMapper(cborMapper);
+  }
+
+  @Override
+  protected boolean supportsMimeType(MessageHeaders headers) {
+    return WireFormat.of(getMimeType(headers)) == WireFormat.CBOR;
+  }
+}
@@ -0,0 +1,106 @@
+package com.engineerpro.example.redis.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+/**
+ * Encodes chat payloads as JSON or CBOR. The CBOR mapper is set up like
+ * Spring Boot's JSON mapper, so both formats carry the same fields and value
+ * representations.
+ */
+public class ChatPayloadCodec {
+  private record Transcoded(byte[] json, byte[] cbor) {
+  }
+
+  private final ObjectMapper jsonMapper;
+  private final ObjectMapper cborMapper;
+  private final WireFormat brokerFormat;
+  private volatile Transcoded lastTranscoded;
+
+  public ChatPayloadCodec(ObjectMapper jsonMapper, WireFormat brokerFormat) {
+    this.jsonMapper = jsonMapper;
+    this.cborMapper = CBORMapper.builder()
+        .findAndAddModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .build();
+    this.brokerFormat = brokerFormat;
+  }
+
+  public ObjectMapper getCborMapper() {
+    return cborMapper;
+  }
+
+  public byte[] encode(Object value, WireFormat format) {
+    try {
+      return mapper(format).writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("cannot encode " + value.getClass().getSimpleName(), e);
+    }
+  }
+
+  public <T> T decode(byte[] payload, WireFormat format, Class<T> type) {
+    try {
+      return mapper(format).readValue(payload, type);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("cannot decode " + type.getSimpleName() + " from " + format, e);
+    }
+  }
+
+  public Message toBrokerMessage(Object value) {
+    MessageProperties properties = new MessageProperties();
+    if (brokerFormat == WireFormat.JSON) {
+      // labelled as the String payloads nodes sent before the codec, so
+      // those nodes still read it during a rolling deploy
+      properties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+      properties.setContentEncoding(StandardCharsets.UTF_8.name());
+    } else {
+      properties.setContentType(brokerFormat.getMimeType().toString());
+    }
+    return new Message(encode(value, brokerFormat), properties);
+  }
+
+  // read by content type, so nodes publishing another format still interoperate
+  public <T> T fromBrokerMessage(Message message, Class<T> type) {
+    return decode(message.getBody(), WireFormat.of(message.getMessageProperties().getContentType()), type);
+  }
+
+  /**
+   * Re-encodes a JSON document as CBOR token by token, without binding it to
+   * objects. The last result is kept because a broadcast hands the same
+   * payload to every subscriber in a row.
+   */
+  public byte[] jsonToCbor(byte[] json) {
+    Transcoded last = lastTranscoded;
+    if (last != null && last.json() == json) {
+      return last.cbor();
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+    try (JsonParser parser = jsonMapper.getFactory().createParser(json);
+        JsonGenerator generator = cborMapper.getFactory().createGenerator(out)) {
+      parser.nextToken();
+      generator.copyCurrentStructure(parser);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("payload is not JSON", e);
+    }
+    byte[] cbor = out.toByteArray();
+    lastTranscoded = new Transcoded(json, cbor);
+    return cbor;
+  }
+
+  private ObjectMapper mapper(WireFormat format) {
+    return format == WireFormat.CBOR ? cborMapper : jsonMapper;
+  }
+}
@@ -0,0 +1,47 @@
+package com.engineerpro.example.redis.codec;
+
+import java.util.Map;
+
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+public enum WireFormat {
+  JSON(MimeTypeUtils.APPLICATION_JSON),
+  // STOMP over WebSocket only sends binary frames for octet-stream payloads,
+  // so CBOR is marked with a parameter instead of application/cbor
+  CBOR(new MimeType("application", "octet-stream", Map.of("format", "cbor")));
+
+  private final MimeType mimeType;
+
+  WireFormat(MimeType mimeType) {
+    this.mimeType = mimeType;
+  }
+
+  public MimeType getMimeType() {
+    return mimeType;
+  }
+
+  /**
+   * The format a payload of this content type is in; anything that is not
+   * CBOR is read as JSON.
+   */
+  public static WireFormat of(MimeType mimeType) {
+    if (mimeType != null && CBOR.mimeType.equalsTypeAndSubtype(mimeType)
+        && "cbor".equals(mimeType.getParameter("format"))) {
+      return CBOR;
+    }
+    return JSON;
+  }
+
+  public static WireFormat of(String contentType) {
+    if (contentType == null || contentType.isBlank()) {
+      return JSON;
+    }
+    try {
+      return of(MimeTypeUtils.parseMimeType(contentType));
+    } catch (InvalidMimeTypeException e) {
+      return JSON;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.engineerpro.example.redis.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
+import com.engineerpro.example.redis.codec.WireFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+public class CodecConfig {
+  // CBOR only once every node reads it, nodes before the codec read JSON text
+  @Value("${chat.codec.broker-format:JSON}")
+  private WireFormat brokerFormat;
+
+  @Bean
+  public ChatPayloadCodec chatPayloadCodec(ObjectMapper objectMapper) {
+    return new ChatPayloadCodec(objectMapper, brokerFormat);
+  }
+}
@@ -0,0 +1,93 @@
+package com.engineerpro.example.redis.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token bucket per STOMP session for SEND frames. Frames over the rate are
+ * refused on the WebSocket thread, before they take a slot in the inbound
+ * executor. Like a full inbound queue, the refusal reaches the client as an
+ * ERROR frame (carrying the receipt id if the SEND asked for one), after
+ * which the session is closed.
+ */
+@Slf4j
+@Component
+public class InboundRateLimitInterceptor implements ChannelInterceptor {
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  // zero or less disables the limit
+  @Value("${chat.websocket.inbound.rate-limit.messages-per-second:20}")
+  private double messagesPerSecond;
+
+  @Value("${chat.websocket.inbound.rate-limit.burst:40}")
+  private double burst;
+
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private Counter limited;
+
+  @PostConstruct
+  void init() {
+    limited = Counter.builder("chat.websocket.inbound.rate-limited").register(meterRegistry);
+    Gauge.builder("chat.websocket.inbound.rate-limit.sessions", buckets, Map::size).register(meterRegistry);
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+    if (sessionId == null || messagesPerSecond <= 0) {
+      return message;
+    }
+    if (messageType == SimpMessageType.DISCONNECT) {
+      buckets.remove(sessionId);
+      return message;
+    }
+    if (messageType != SimpMessageType.MESSAGE) {
+      return message;
+    }
+    TokenBucket bucket = buckets.computeIfAbsent(sessionId, id -> new TokenBucket(burst, System.nanoTime()));
+    if (!bucket.tryAcquire(messagesPerSecond / 1e9, burst, System.nanoTime())) {
+      limited.increment();
+      log.debug("rate limited sessionId={}", sessionId);
+      throw new MessageDeliveryException(message, "rate limited");
+    }
+    return message;
+  }
+
+  private static class TokenBucket {
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double tokens, long nowNanos) {
+      this.tokens = tokens;
+      this.lastRefillNanos = nowNanos;
+    }
+
+    synchronized boolean tryAcquire(double tokensPerNano, double capacity, long nowNanos) {
+      tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+      lastRefillNanos = nowNanos;
+      if (tokens < 1) {
+        return false;
+      }
+      tokens -= 1;
+      return true;
+    }
+  }
+}
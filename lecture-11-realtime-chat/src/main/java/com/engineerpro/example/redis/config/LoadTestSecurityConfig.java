@@ -0,0 +1,82 @@
+package com.engineerpro.example.redis.config;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replaces the OAuth2 login under the {@code loadtest} profile: requests are
+ * authenticated as the user named in the {@value #LOAD_USER_HEADER} header,
+ * so the load tool can open WebSocket sessions for thousands of users. The
+ * application refuses to start unless {@code server.address} is a loopback
+ * address; {@code loadtest.allow-remote=true} lifts that for a load tool on
+ * another machine of an isolated network.
+ */
+@Slf4j
+@Configuration
+@EnableWebSecurity
+@Profile("loadtest")
+public class LoadTestSecurityConfig {
+  public static final String LOAD_USER_HEADER = "X-Load-User";
+
+  @Value("${server.address:}")
+  private String serverAddress;
+
+  @Value("${loadtest.allow-remote:false}")
+  private boolean allowRemote;
+
+  @PostConstruct
+  void checkBindAddress() throws IOException {
+    if (allowRemote) {
+      log.warn("load test login is reachable on server.address={}", serverAddress);
+      return;
+    }
+    if (serverAddress.isBlank() || !InetAddress.getByName(serverAddress).isLoopbackAddress()) {
+      throw new IllegalStateException("the loadtest profile trusts " + LOAD_USER_HEADER
+          + " from anyone, set server.address to a loopback address or loadtest.allow-remote=true");
+    }
+  }
+
+  @Bean
+  public SecurityFilterChain loadTestFilterChain(HttpSecurity http) throws Exception {
+    log.warn("Configuring load test filterChain, requests are trusted by header");
+    http
+        .addFilterBefore(new OncePerRequestFilter() {
+          @Override
+          protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+              FilterChain filterChain) throws ServletException, IOException {
+            String username = request.getHeader(LOAD_USER_HEADER);
+            if (username != null && !username.isBlank()) {
+              SecurityContextHolder.getContext()
+                  .setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+            }
+            filterChain.doFilter(request, response);
+          }
+        }, AnonymousAuthenticationFilter.class)
+        .authorizeHttpRequests(authorize -> authorize.anyRequest().authenticated())
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .csrf(AbstractHttpConfigurer::disable);
+    return http.build();
+  }
+}
@@ -0,0 +1,69 @@
+package com.engineerpro.example.redis.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.model.User;
+import com.engineerpro.example.redis.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the users the load tool connects as, named
+ * {@code <prefix><n><domain>}; existing ones are kept.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestUserSeeder implements ApplicationRunner {
+  private static final int BATCH_SIZE = 1000;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Value("${loadtest.users:10000}")
+  private int users;
+
+  @Value("${loadtest.user-prefix:load-}")
+  private String userPrefix;
+
+  @Value("${loadtest.user-domain:@loadtest.local}")
+  private String userDomain;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    Set<String> existing = userRepository.findUsernamesStartingWith(userPrefix);
+    List<User> batch = new ArrayList<>(BATCH_SIZE);
+    int created = 0;
+    for (int i = 0; i < users; i++) {
+      String username = userPrefix + i + userDomain;
+      if (existing.contains(username)) {
+        continue;
+      }
+      User user = new User();
+      user.setId(UUID.randomUUID());
+      user.setUsername(username);
+      user.setName(username);
+      user.setProvider("loadtest");
+      user.setEnabled(true);
+      batch.add(user);
+      if (batch.size() == BATCH_SIZE) {
+        userRepository.saveAll(batch);
+        created += batch.size();
+        batch.clear();
+      }
+    }
+    userRepository.saveAll(batch);
+    created += batch.size();
+    log.info("load test users ready total={}, created={}", users, created);
+  }
+}
@@ -6,16 +6,21 @@ import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 
+import com.engineerpro.example.redis.service.presence.PresenceService;
+
 @Configuration
 public class MessageQueueConfig {
-  public static final String PRIVATE_CHAT_QUEUE = "privateChatQueue";
   public static final String CHAT_EXCHANGE = "chatExchange";
+  public static final String PRIVATE_ROUTING_KEY_PREFIX = "chat.private.";
+  public static final String NODE_QUEUE_PREFIX = "chat.node.";
+  public static final String NODE_ROUTING_KEY_PREFIX = "chat.node.";
+  public static final String ROOM_BROADCAST_ROUTING_KEY = "chat.room.broadcast";
+  public static final String EVENT_ROUTING_KEY_PREFIX = "chat.event.";
 
   @Bean
   public RetryTemplate retryTemplate() {
@@ -38,10 +43,15 @@ public class MessageQueueConfig {
     return factory;
   }
 
+  /**
+   * This node's own queue. NodeQueueBinder binds
+   * {@code chat.private.<username>} to it while the user has a session here,
+   * so the exchange hands each message only to the nodes holding the
+   * receiver. The queue is deleted when the node goes away.
+   */
   @Bean
-  @Qualifier(PRIVATE_CHAT_QUEUE)
-  Queue privateChatQueue() {
-    return new Queue(PRIVATE_CHAT_QUEUE, false);
+  Queue nodeQueue(PresenceService presenceService) {
+    return new Queue(NODE_QUEUE_PREFIX + presenceService.getNodeId(), false, false, true);
   }
 
   @Bean
@@ -49,9 +59,22 @@ public class MessageQueueConfig {
     return new TopicExchange(CHAT_EXCHANGE);
   }
 
+  // room messages addressed to the members connected to this node
+  @Bean
+  Binding nodeBinding(Queue nodeQueue, TopicExchange exchange, PresenceService presenceService) {
+    return BindingBuilder.bind(nodeQueue).to(exchange).with(NODE_ROUTING_KEY_PREFIX + presenceService.getNodeId());
+  }
+
+  // typing indicators and read receipts for users connected to this node
+  @Bean
+  Binding nodeEventBinding(Queue nodeQueue, TopicExchange exchange, PresenceService presenceService) {
+    return BindingBuilder.bind(nodeQueue).to(exchange).with(EVENT_ROUTING_KEY_PREFIX + presenceService.getNodeId());
+  }
+
+  // messages of large rooms, published to /topic/room.{id} on every node
   @Bean
-  Binding binding(@Qualifier(PRIVATE_CHAT_QUEUE) Queue queue, TopicExchange exchange) {
-    return BindingBuilder.bind(queue).to(exchange).with("chat.private.#");
+  Binding roomBroadcastBinding(Queue nodeQueue, TopicExchange exchange) {
+    return BindingBuilder.bind(nodeQueue).to(exchange).with(ROOM_BROADCAST_ROUTING_KEY);
   }
 
 }
@@ -0,0 +1,47 @@
+package com.engineerpro.example.redis.config;
+
+import java.security.Principal;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.service.room.RoomService;
+
+/**
+ * Only members may subscribe to a room topic.
+ */
+@Component
+public class RoomSubscriptionInterceptor implements ChannelInterceptor {
+  // the room service sends through the broker this interceptor guards
+  @Lazy
+  @Autowired
+  private RoomService roomService;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    if (!StompCommand.SUBSCRIBE.equals(accessor.getCommand()) || Objects.isNull(accessor.getDestination())
+        || !accessor.getDestination().startsWith(WebSocketConfig.ROOM_TOPIC_PREFIX)) {
+      return message;
+    }
+    Principal user = accessor.getUser();
+    long roomId;
+    try {
+      roomId = Long.parseLong(accessor.getDestination().substring(WebSocketConfig.ROOM_TOPIC_PREFIX.length()));
+    } catch (NumberFormatException e) {
+      throw new MessageDeliveryException(message, "unknown room destination");
+    }
+    if (Objects.isNull(user) || !roomService.isMember(user.getName(), roomId)) {
+      throw new MessageDeliveryException(message, "not a member of room " + roomId);
+    }
+    return message;
+  }
+}
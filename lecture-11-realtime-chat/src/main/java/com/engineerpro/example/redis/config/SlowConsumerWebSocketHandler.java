@@ -0,0 +1,120 @@
+package com.engineerpro.example.redis.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Applies the send buffer and time limits of every session with a
+ * configurable overflow policy. With {@code TERMINATE} (the default) a
+ * client whose buffer outgrows the limit is disconnected, as Spring does by
+ * default. With {@code DROP} only direct messages, the MESSAGE frames
+ * carrying a {@value #SEQ_HEADER} header, are discarded while its buffer is
+ * full; the client notices the gap in its inbox sequence and syncs. Any other
+ * frame that does not fit still disconnects the client, since room messages
+ * and events cannot be recovered that way. Clients stuck in one send longer
+ * than the time limit are disconnected under either policy.
+ */
+public class SlowConsumerWebSocketHandler extends SubProtocolWebSocketHandler {
+  // STOMP header with the inbox sequence number of a direct message
+  public static final String SEQ_HEADER = "seq";
+
+  private static final String MESSAGE_COMMAND = "MESSAGE\n";
+  private static final String SEQ_HEADER_LINE = "\n" + SEQ_HEADER + ":";
+  private static final int MAX_HEADER_BYTES = 1024;
+
+  private final OverflowStrategy overflowStrategy;
+  private final Counter dropped;
+  private final Counter terminated;
+  private final DistributionSummary bufferSizes;
+
+  public SlowConsumerWebSocketHandler(MessageChannel clientInboundChannel,
+      SubscribableChannel clientOutboundChannel, OverflowStrategy overflowStrategy, MeterRegistry meterRegistry) {
+    super(clientInboundChannel, clientOutboundChannel);
+    this.overflowStrategy = overflowStrategy;
+    dropped = Counter.builder("chat.websocket.outbound.dropped").register(meterRegistry);
+    terminated = Counter.builder("chat.websocket.outbound.terminated")
+        .description("sessions closed for exceeding the send buffer or time limit")
+        .register(meterRegistry);
+    bufferSizes = DistributionSummary.builder("chat.websocket.session.send-buffer")
+        .description("bytes buffered for a session after each outbound frame")
+        .baseUnit("bytes")
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected WebSocketSession decorateSession(WebSocketSession session) {
+    return new SessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit());
+  }
+
+  private class SessionDecorator extends ConcurrentWebSocketSessionDecorator {
+    private final int bufferSizeLimit;
+
+    SessionDecorator(WebSocketSession session, int sendTimeLimit, int bufferSizeLimit) {
+      // when dropping, frames are refused at the limit and the doubled limit
+      // only catches concurrent senders overshooting it
+      super(session, sendTimeLimit, overflowStrategy == OverflowStrategy.DROP ? bufferSizeLimit * 2 : bufferSizeLimit,
+          OverflowStrategy.TERMINATE);
+      this.bufferSizeLimit = bufferSizeLimit;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+      if (overflowStrategy == OverflowStrategy.DROP
+          && getBufferSize() + message.getPayloadLength() > bufferSizeLimit
+          && getTimeSinceSendStarted() <= getSendTimeLimit()
+          && isSyncedFrame(message)) {
+        dropped.increment();
+        return;
+      }
+      super.sendMessage(message);
+      bufferSizes.record(getBufferSize());
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+      if (CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+        terminated.increment();
+      }
+      super.close(status);
+    }
+  }
+
+  // only frames the client can fetch again through inbox sync may be dropped
+  private static boolean isSyncedFrame(WebSocketMessage<?> message) {
+    String headers;
+    if (message instanceof TextMessage text) {
+      headers = headerBlock(text.getPayload());
+    } else if (message instanceof BinaryMessage binary) {
+      // headers are ASCII here; decoding a bounded prefix leaves the body alone
+      ByteBuffer payload = binary.getPayload().duplicate();
+      byte[] prefix = new byte[Math.min(payload.remaining(), MAX_HEADER_BYTES)];
+      payload.get(prefix);
+      headers = headerBlock(new String(prefix, StandardCharsets.ISO_8859_1));
+    } else {
+      return false;
+    }
+    return headers.startsWith(MESSAGE_COMMAND) && headers.contains(SEQ_HEADER_LINE);
+  }
+
+  private static String headerBlock(String frame) {
+    int end = frame.indexOf("\n\n");
+    return end < 0 ? frame : frame.substring(0, end + 1);
+  }
+}
@@ -0,0 +1,67 @@
+package com.engineerpro.example.redis.config;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
+import com.engineerpro.example.redis.codec.WireFormat;
+
+/**
+ * A client asks for CBOR by sending the CBOR content type in its CONNECT
+ * frame. Messages are converted to JSON once per send and re-encoded here for
+ * each CBOR session.
+ */
+@Component
+public class StompWireFormatInterceptor implements ChannelInterceptor {
+  @Autowired
+  private ChatPayloadCodec chatPayloadCodec;
+
+  private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+  @EventListener
+  public void onConnect(SessionConnectEvent event) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+    String contentType = accessor.getFirstNativeHeader(StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER);
+    if (WireFormat.of(contentType) == WireFormat.CBOR) {
+      cborSessions.add(accessor.getSessionId());
+    }
+  }
+
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    cborSessions.remove(event.getSessionId());
+  }
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    if (cborSessions.isEmpty()
+        || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+        || !cborSessions.contains(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()))
+        || !(message.getPayload() instanceof byte[] json)) {
+      return message;
+    }
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+    if (accessor.getContentType() == null
+        || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(accessor.getContentType())) {
+      return message;
+    }
+    accessor.setContentType(WireFormat.CBOR.getMimeType());
+    accessor.removeNativeHeader(StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER);
+    accessor.removeNativeHeader(StompHeaderAccessor.STOMP_CONTENT_LENGTH_HEADER);
+    return MessageBuilder.createMessage(chatPayloadCodec.jsonToCbor(json), accessor.getMessageHeaders());
+  }
+}
@@ -0,0 +1,33 @@
+package com.engineerpro.example.redis.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Takes the place of {@code @EnableWebSocketMessageBroker} so the session
+ * handler can apply the configured send buffer overflow policy.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${chat.websocket.send-buffer.overflow-policy:TERMINATE}")
+  private OverflowStrategy overflowStrategy;
+
+  @Bean
+  @Override
+  public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+      AbstractSubscribableChannel clientOutboundChannel) {
+    return new SlowConsumerWebSocketHandler(clientInboundChannel, clientOutboundChannel, overflowStrategy,
+        meterRegistry);
+  }
+}
@@ -1,15 +1,77 @@
 package com.engineerpro.example.redis.config;
 
+import java.util.List;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import com.engineerpro.example.redis.codec.CborMessageConverter;
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
+// the broker itself is enabled by WebSocketBrokerConfig
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+	public static final String ROOM_TOPIC_PREFIX = "/topic/room.";
+
+	@Autowired
+	private RoomSubscriptionInterceptor roomSubscriptionInterceptor;
+
+	@Autowired
+	private InboundRateLimitInterceptor inboundRateLimitInterceptor;
+
+	@Autowired
+	private StompWireFormatInterceptor stompWireFormatInterceptor;
+
+	@Autowired
+	private ChatPayloadCodec chatPayloadCodec;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${chat.websocket.inbound.core-pool-size:8}")
+	private int inboundCorePoolSize;
+
+	@Value("${chat.websocket.inbound.max-pool-size:16}")
+	private int inboundMaxPoolSize;
+
+	@Value("${chat.websocket.inbound.queue-capacity:1000}")
+	private int inboundQueueCapacity;
+
+	@Value("${chat.websocket.outbound.core-pool-size:8}")
+	private int outboundCorePoolSize;
+
+	@Value("${chat.websocket.outbound.max-pool-size:16}")
+	private int outboundMaxPoolSize;
+
+	@Value("${chat.websocket.outbound.queue-capacity:10000}")
+	private int outboundQueueCapacity;
+
+	@Value("${chat.websocket.send-buffer.size-limit-bytes:524288}")
+	private int sendBufferSizeLimit;
+
+	@Value("${chat.websocket.send-buffer.time-limit-ms:10000}")
+	private int sendTimeLimit;
+
+	@Value("${chat.websocket.message-size-limit-bytes:65536}")
+	private int messageSizeLimit;
+
+	@Value("${chat.stomp-relay.enabled:false}")
+	private boolean relayEnabled;
+
 	@Value("${spring.rabbitmq.stomp.relay.host}")
 	private String relayHost;
 
@@ -24,20 +86,75 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
-		// config.enableSimpleBroker("/topic");
-		config.enableStompBrokerRelay("/topic", "/queue")
-				.setRelayHost(relayHost)
-				.setRelayPort(relayPort)
-				.setClientLogin(relayLogin)
-				.setClientPasscode(relayPasscode)
-				.setUserDestinationBroadcast("/topic/unresolved-user")
-				.setUserRegistryBroadcast("/topic/registry-broadcast");
+		// messages reach the node owning the receiver's session over its AMQP
+		// node queue, so the local broker only serves this node's sessions
+		if (relayEnabled) {
+			config.enableStompBrokerRelay("/topic", "/queue")
+					.setRelayHost(relayHost)
+					.setRelayPort(relayPort)
+					.setClientLogin(relayLogin)
+					.setClientPasscode(relayPasscode)
+					.setUserDestinationBroadcast("/topic/unresolved-user")
+					.setUserRegistryBroadcast("/topic/registry-broadcast");
+		} else {
+			config.enableSimpleBroker("/topic", "/queue");
+		}
 		config.setApplicationDestinationPrefixes("/app");
 	}
 
+	@Override
+	public void configureClientInboundChannel(ChannelRegistration registration) {
+		// a full inbound queue rejects the frame and the client gets an ERROR frame
+		registration.taskExecutor(boundedExecutor("clientInboundChannel", inboundCorePoolSize, inboundMaxPoolSize,
+				inboundQueueCapacity, new ThreadPoolExecutor.AbortPolicy()));
+		registration.interceptors(inboundRateLimitInterceptor, roomSubscriptionInterceptor);
+	}
+
+	@Override
+	public void configureClientOutboundChannel(ChannelRegistration registration) {
+		// a full outbound queue slows down the broker and AMQP listener threads
+		// producing messages instead of failing them
+		registration.taskExecutor(boundedExecutor("clientOutboundChannel", outboundCorePoolSize, outboundMaxPoolSize,
+				outboundQueueCapacity, new ThreadPoolExecutor.CallerRunsPolicy()));
+		registration.interceptors(stompWireFormatInterceptor);
+	}
+
+	@Override
+	public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+		messageConverters.add(new CborMessageConverter(chatPayloadCodec.getCborMapper()));
+		return true;
+	}
+
+	@Override
+	public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+		registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+				.setSendTimeLimit(sendTimeLimit)
+				.setMessageSizeLimit(messageSizeLimit);
+	}
+
 	@Override
 	public void registerStompEndpoints(StompEndpointRegistry registry) {
 		registry.addEndpoint("/ws");
 	}
 
+	private ThreadPoolTaskExecutor boundedExecutor(String channel, int corePoolSize, int maxPoolSize,
+			int queueCapacity, RejectedExecutionHandler whenFull) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(channel + "-");
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		Counter rejected = Counter.builder("chat.websocket.executor.rejected").tag("channel", channel)
+				.register(meterRegistry);
+		executor.setRejectedExecutionHandler((task, pool) -> {
+			rejected.increment();
+			whenFull.rejectedExecution(task, pool);
+		});
+		Gauge.builder("chat.websocket.executor.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+				.tag("channel", channel).register(meterRegistry);
+		Gauge.builder("chat.websocket.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+				.tag("channel", channel).register(meterRegistry);
+		return executor;
+	}
+
 }
@@ -0,0 +1,38 @@
+package com.engineerpro.example.redis.controller.message;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.message.GetMessagesResponse;
+import com.engineerpro.example.redis.service.message.ChatMessageService;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@Slf4j
+@RequestMapping(path = "/conversations")
+@Validated
+public class ConversationController {
+  @Autowired
+  ChatMessageService chatMessageService;
+
+  @GetMapping("/{peer}/messages")
+  public ResponseEntity<GetMessagesResponse> getMessages(@PathVariable String peer,
+      @RequestParam(value = "before", required = false) Long before,
+      @RequestParam(value = "after", required = false) Long after,
+      @RequestParam(value = "limit", defaultValue = "50") @Min(1) @Max(200) int limit,
+      Authentication authentication) {
+    log.info("peer={}, before={}, after={}, limit={}", peer, before, after, limit);
+    return ResponseEntity.ok()
+        .body(chatMessageService.getMessages(authentication.getName(), peer, before, after, limit));
+  }
+}
@@ -0,0 +1,27 @@
+package com.engineerpro.example.redis.controller.message;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import com.engineerpro.example.redis.dto.message.ReadInput;
+import com.engineerpro.example.redis.dto.message.TypingInput;
+import com.engineerpro.example.redis.service.message.ConversationEventService;
+
+@Controller
+public class ConversationEventController {
+  @Autowired
+  ConversationEventService conversationEventService;
+
+  @MessageMapping("/typing")
+  public void typing(TypingInput input, Authentication authentication) {
+    conversationEventService.typing(authentication.getName(), input.getReceiver(), input.getRoomId());
+  }
+
+  @MessageMapping("/read")
+  public void read(ReadInput input, Authentication authentication) {
+    conversationEventService.read(authentication.getName(), input.getReceiver(), input.getRoomId(),
+        input.getMessageId());
+  }
+}
@@ -0,0 +1,29 @@
+package com.engineerpro.example.redis.controller.message;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.message.SyncResponse;
+import com.engineerpro.example.redis.service.message.InboxService;
+
+import jakarta.validation.constraints.Min;
+
+@RestController
+@RequestMapping(path = "/inbox")
+@Validated
+public class InboxController {
+  @Autowired
+  InboxService inboxService;
+
+  @GetMapping("/sync")
+  public ResponseEntity<SyncResponse> sync(@RequestParam("sinceSeq") @Min(0) long sinceSeq,
+      @RequestParam(value = "limit", required = false) @Min(1) Integer limit, Authentication authentication) {
+    return ResponseEntity.ok().body(inboxService.sync(authentication.getName(), sinceSeq, limit));
+  }
+}
@@ -1,27 +1,26 @@
 package com.engineerpro.example.redis.controller.message;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
 import com.engineerpro.example.redis.config.MessageQueueConfig;
 import com.engineerpro.example.redis.dto.SendMessageInput;
-import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.message.SyncRequest;
+import com.engineerpro.example.redis.dto.message.SyncResponse;
+import com.engineerpro.example.redis.event.ChatBrokerPublisher;
 import com.engineerpro.example.redis.exception.UserNotFoundException;
 import com.engineerpro.example.redis.model.ChatMessage;
 import com.engineerpro.example.redis.model.User;
-import com.engineerpro.example.redis.repository.ChatMessageRepository;
 import com.engineerpro.example.redis.repository.UserRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.engineerpro.example.redis.service.message.ChatMessageService;
+import com.engineerpro.example.redis.service.message.InboxService;
+import com.engineerpro.example.redis.service.presence.PresenceService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,40 +31,54 @@ public class MessageController {
   UserRepository userRepository;
 
   @Autowired
-  ChatMessageRepository chatMessageRepository;
+  ChatMessageService chatMessageService;
 
   @Autowired
-  private RabbitTemplate rabbitTemplate;
+  InboxService inboxService;
 
   @Autowired
-  ObjectMapper objectMapper;
+  private ChatBrokerPublisher chatBrokerPublisher;
 
   @Autowired
-  private SimpMessagingTemplate messagingTemplate;
+  private ChatPayloadCodec chatPayloadCodec;
+
+  @Autowired
+  private PresenceService presenceService;
 
   @MessageMapping("/chat")
   @SendToUser("/queue/messages")
-  public ChatMessage sendMessage(SendMessageInput input, Authentication authentication) throws JsonProcessingException {
+  public ChatMessage sendMessage(SendMessageInput input, Authentication authentication) {
     log.info("got input {}", input);
     // find the receiver user
     Optional<User> receiver = userRepository.findByUsername(input.getReceiver());
     if (!receiver.isPresent()) {
       throw new UserNotFoundException();
     }
-    // create a chat message record
-    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-    ChatMessage chatMessage = chatMessageRepository
-        .save(ChatMessage.builder().content(input.getContent()).receiver(input.getReceiver())
-            .sender(userPrincipal.getId().toString()).timestamp(LocalDateTime.now()).build());
-    // send chat message to topic exchange
-    String routingKey = "chat.private." + input.getReceiver();
-    messagingTemplate.convertAndSendToUser(
-        chatMessage.getReceiver(), "/queue/messages", chatMessage);
-    // rabbitTemplate.convertAndSend(MessageQueueConfig.CHAT_EXCHANGE, routingKey,
-    // objectMapper.writeValueAsString(chatMessage));
+    // create a chat message record; the sender is the principal name, the
+    // same username the receiver is addressed by
+    ChatMessage chatMessage = chatMessageService.saveMessage(authentication.getName(), input);
+    ChatMessage delivered = inboxService.append(chatMessage);
+    // an offline receiver picks the message up from its inbox when it syncs
+    if (!presenceService.isOnline(chatMessage.getReceiver())) {
+      return chatMessage;
+    }
+    // send chat message to topic exchange, which routes it only to the
+    // queues of the nodes holding a session of the receiver
+    String routingKey = MessageQueueConfig.PRIVATE_ROUTING_KEY_PREFIX + input.getReceiver();
+    chatBrokerPublisher.publish(routingKey, chatPayloadCodec.toBrokerMessage(delivered));
     log.info("sent message to chat exchange = {}, routing Key = {}, message = {}",
         MessageQueueConfig.CHAT_EXCHANGE,
         routingKey, chatMessage);
     return chatMessage;
   }
+
+  /**
+   * Missed messages after the last sequence number the client has seen, sent
+   * on reconnect.
+   */
+  @MessageMapping("/sync")
+  @SendToUser("/queue/sync")
+  public SyncResponse sync(SyncRequest input, Authentication authentication) {
+    return inboxService.sync(authentication.getName(), input.getSinceSeq(), input.getLimit());
+  }
 }
@@ -0,0 +1,30 @@
+package com.engineerpro.example.redis.controller.presence;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.presence.GetPresenceResponse;
+import com.engineerpro.example.redis.service.presence.PresenceService;
+
+import jakarta.validation.constraints.Size;
+
+@RestController
+@RequestMapping(path = "/presence")
+@Validated
+public class PresenceController {
+  @Autowired
+  PresenceService presenceService;
+
+  @GetMapping()
+  public ResponseEntity<GetPresenceResponse> getPresence(
+      @RequestParam("usernames") @Size(min = 1, max = 100) List<String> usernames) {
+    return ResponseEntity.ok().body(GetPresenceResponse.builder().users(presenceService.getPresence(usernames)).build());
+  }
+}
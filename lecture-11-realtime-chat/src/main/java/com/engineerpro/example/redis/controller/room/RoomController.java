@@ -0,0 +1,68 @@
+package com.engineerpro.example.redis.controller.room;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.message.GetMessagesResponse;
+import com.engineerpro.example.redis.dto.room.AddRoomMembersRequest;
+import com.engineerpro.example.redis.dto.room.CreateRoomRequest;
+import com.engineerpro.example.redis.dto.room.GetRoomResponse;
+import com.engineerpro.example.redis.service.room.RoomService;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@Slf4j
+@RequestMapping(path = "/rooms")
+@Validated
+public class RoomController {
+  @Autowired
+  RoomService roomService;
+
+  @PostMapping()
+  public ResponseEntity<GetRoomResponse> createRoom(@Valid @RequestBody CreateRoomRequest request,
+      Authentication authentication) {
+    return ResponseEntity.ok()
+        .body(roomService.createRoom(authentication.getName(), request.getName(), request.getMembers()));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<GetRoomResponse> getRoom(@PathVariable long id, Authentication authentication) {
+    return ResponseEntity.ok().body(roomService.getRoom(authentication.getName(), id));
+  }
+
+  @PostMapping("/{id}/members")
+  public ResponseEntity<GetRoomResponse> addMembers(@PathVariable long id,
+      @Valid @RequestBody AddRoomMembersRequest request, Authentication authentication) {
+    return ResponseEntity.ok().body(roomService.addMembers(authentication.getName(), id, request.getUsernames()));
+  }
+
+  @DeleteMapping("/{id}/members/me")
+  public ResponseEntity<Void> leaveRoom(@PathVariable long id, Authentication authentication) {
+    roomService.leaveRoom(authentication.getName(), id);
+    return ResponseEntity.ok().build();
+  }
+
+  @GetMapping("/{id}/messages")
+  public ResponseEntity<GetMessagesResponse> getMessages(@PathVariable long id,
+      @RequestParam(value = "before", required = false) Long before,
+      @RequestParam(value = "after", required = false) Long after,
+      @RequestParam(value = "limit", defaultValue = "50") @Min(1) @Max(200) int limit,
+      Authentication authentication) {
+    log.info("roomId={}, before={}, after={}, limit={}", id, before, after, limit);
+    return ResponseEntity.ok().body(roomService.getMessages(authentication.getName(), id, before, after, limit));
+  }
+}
@@ -0,0 +1,21 @@
+package com.engineerpro.example.redis.controller.room;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import com.engineerpro.example.redis.dto.room.SendRoomMessageInput;
+import com.engineerpro.example.redis.service.room.RoomService;
+
+@Controller
+public class RoomMessageController {
+  @Autowired
+  RoomService roomService;
+
+  // the sender is a member, so the fan-out delivers its own copy too
+  @MessageMapping("/room")
+  public void sendMessage(SendRoomMessageInput input, Authentication authentication) {
+    roomService.sendMessage(authentication.getName(), input.getRoomId(), input.getContent());
+  }
+}
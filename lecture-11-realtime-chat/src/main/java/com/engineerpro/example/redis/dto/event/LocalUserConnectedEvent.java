@@ -0,0 +1,13 @@
+package com.engineerpro.example.redis.dto.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * A user opened their first session on this node.
+ */
+@Data
+@Builder
+public class LocalUserConnectedEvent {
+  String username;
+}
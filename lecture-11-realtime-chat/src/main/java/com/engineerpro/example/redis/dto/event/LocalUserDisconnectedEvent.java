@@ -0,0 +1,13 @@
+package com.engineerpro.example.redis.dto.event;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * The last session of a user on this node closed.
+ */
+@Data
+@Builder
+public class LocalUserDisconnectedEvent {
+  String username;
+}
@@ -0,0 +1,35 @@
+package com.engineerpro.example.redis.dto.message;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typing indicator, read receipt or room change. Only delivered to
+ * participants that are online and never stored.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ConversationEvent {
+  public enum Type {
+    TYPING,
+    READ,
+    // the room is now published to /topic/room.{roomId}
+    BROADCAST,
+    // from left the room; its sessions were unsubscribed from the room topic
+    LEFT
+  }
+
+  private Type type;
+  private String from;
+  // null in direct conversations, where from identifies the conversation
+  private Long roomId;
+  // the newest message read, for READ
+  @JsonFormat(shape = JsonFormat.Shape.STRING)
+  private Long messageId;
+}
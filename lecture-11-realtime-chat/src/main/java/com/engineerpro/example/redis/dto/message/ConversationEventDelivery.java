@@ -0,0 +1,20 @@
+package com.engineerpro.example.redis.dto.message;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One event for all of its receivers connected to one node.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ConversationEventDelivery {
+  private ConversationEvent event;
+  private List<String> receivers;
+}
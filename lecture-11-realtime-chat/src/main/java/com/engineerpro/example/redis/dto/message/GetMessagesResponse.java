@@ -0,0 +1,20 @@
+package com.engineerpro.example.redis.dto.message;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GetMessagesResponse {
+  // oldest first
+  private List<ChatMessage> messages;
+  private boolean hasMore;
+}
@@ -0,0 +1,13 @@
+package com.engineerpro.example.redis.dto.message;
+
+import lombok.Data;
+
+/**
+ * The newest message the user has read in a direct conversation or a room.
+ */
+@Data
+public class ReadInput {
+  private String receiver;
+  private Long roomId;
+  private long messageId;
+}
@@ -0,0 +1,9 @@
+package com.engineerpro.example.redis.dto.message;
+
+import lombok.Data;
+
+@Data
+public class SyncRequest {
+  private long sinceSeq;
+  private Integer limit;
+}
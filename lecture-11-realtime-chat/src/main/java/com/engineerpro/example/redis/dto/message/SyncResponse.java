@@ -0,0 +1,25 @@
+package com.engineerpro.example.redis.dto.message;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class SyncResponse {
+  // oldest first, each with its seq
+  private List<ChatMessage> messages;
+  private long latestSeq;
+  private boolean hasMore;
+  // messages after sinceSeq already left the inbox, or sinceSeq is ahead of
+  // latestSeq; reload the conversations from history and continue from
+  // latestSeq
+  private boolean truncated;
+}
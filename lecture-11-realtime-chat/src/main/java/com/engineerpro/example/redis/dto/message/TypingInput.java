@@ -0,0 +1,12 @@
+package com.engineerpro.example.redis.dto.message;
+
+import lombok.Data;
+
+/**
+ * Either the peer of a direct conversation or a room.
+ */
+@Data
+public class TypingInput {
+  private String receiver;
+  private Long roomId;
+}
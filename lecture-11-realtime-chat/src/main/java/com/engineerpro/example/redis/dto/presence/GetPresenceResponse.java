@@ -0,0 +1,16 @@
+package com.engineerpro.example.redis.dto.presence;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GetPresenceResponse {
+  private List<UserPresence> users;
+}
@@ -0,0 +1,17 @@
+package com.engineerpro.example.redis.dto.presence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class UserPresence {
+  private String username;
+  private boolean online;
+  // epoch millis, null if never seen
+  private Long lastSeenAt;
+}
@@ -0,0 +1,12 @@
+package com.engineerpro.example.redis.dto.room;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class AddRoomMembersRequest {
+  @NotEmpty
+  private List<String> usernames;
+}
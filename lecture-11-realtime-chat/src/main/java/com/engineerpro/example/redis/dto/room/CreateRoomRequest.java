@@ -0,0 +1,14 @@
+package com.engineerpro.example.redis.dto.room;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class CreateRoomRequest {
+  @NotBlank
+  private String name;
+  // usernames to add besides the creator
+  private List<String> members;
+}
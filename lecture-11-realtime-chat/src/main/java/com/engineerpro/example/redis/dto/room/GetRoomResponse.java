@@ -0,0 +1,21 @@
+package com.engineerpro.example.redis.dto.room;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.ChatRoom;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GetRoomResponse {
+  private ChatRoom room;
+  private List<String> members;
+  // subscribe to /topic/room.{id} instead of waiting on /user/queue/messages
+  private boolean broadcast;
+}
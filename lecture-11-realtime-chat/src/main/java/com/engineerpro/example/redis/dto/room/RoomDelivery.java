@@ -0,0 +1,22 @@
+package com.engineerpro.example.redis.dto.room;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One room message for all of its receivers connected to one node.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class RoomDelivery {
+  private ChatMessage message;
+  private List<String> receivers;
+}
@@ -0,0 +1,9 @@
+package com.engineerpro.example.redis.dto.room;
+
+import lombok.Data;
+
+@Data
+public class SendRoomMessageInput {
+  private long roomId;
+  private String content;
+}
@@ -0,0 +1,37 @@
+package com.engineerpro.example.redis.event;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.config.MessageQueueConfig;
+
+/**
+ * Publishes to the chat exchange. With {@code chat.amqp.enabled=false} the
+ * application runs as a single node without RabbitMQ, for example under load
+ * tests, and messages go straight to this node's listener, which holds every
+ * session.
+ */
+@Component
+public class ChatBrokerPublisher {
+  @Autowired
+  private RabbitTemplate rabbitTemplate;
+
+  @Lazy
+  @Autowired
+  private MessageListener messageListener;
+
+  @Value("${chat.amqp.enabled:true}")
+  private boolean amqpEnabled;
+
+  public void publish(String routingKey, Message message) {
+    if (amqpEnabled) {
+      rabbitTemplate.send(MessageQueueConfig.CHAT_EXCHANGE, routingKey, message);
+    } else {
+      messageListener.handleMessage(message, routingKey);
+    }
+  }
+}
@@ -1,16 +1,35 @@
 package com.engineerpro.example.redis.event;
 
+import java.util.Map;
+
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
 import com.engineerpro.example.redis.config.MessageQueueConfig;
+import com.engineerpro.example.redis.config.SlowConsumerWebSocketHandler;
+import com.engineerpro.example.redis.config.WebSocketConfig;
+import com.engineerpro.example.redis.dto.message.ConversationEvent;
+import com.engineerpro.example.redis.dto.message.ConversationEventDelivery;
+import com.engineerpro.example.redis.dto.room.RoomDelivery;
 import com.engineerpro.example.redis.model.ChatMessage;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,15 +40,92 @@ public class MessageListener {
   private SimpMessagingTemplate messagingTemplate;
 
   @Autowired
-  ObjectMapper objectMapper;
+  private ChatPayloadCodec chatPayloadCodec;
+
+  @Autowired
+  private SimpUserRegistry simpUserRegistry;
+
+  @Autowired
+  @Qualifier("clientInboundChannel")
+  private MessageChannel clientInboundChannel;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  // only messages for users with a session on this node arrive here
+  @RabbitListener(queues = "#{nodeQueue.name}")
+  public void handleMessage(Message message, @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+    if (routingKey.startsWith(MessageQueueConfig.NODE_ROUTING_KEY_PREFIX)) {
+      handleRoomDelivery(message);
+    } else if (routingKey.startsWith(MessageQueueConfig.EVENT_ROUTING_KEY_PREFIX)) {
+      handleEventDelivery(message);
+    } else if (routingKey.equals(MessageQueueConfig.ROOM_BROADCAST_ROUTING_KEY)) {
+      handleRoomBroadcast(message);
+    } else {
+      handlePrivateMessage(message);
+    }
+  }
 
-  @RabbitListener(queues = MessageQueueConfig.PRIVATE_CHAT_QUEUE)
-  public void handlePrivateMessage(String message) throws JsonMappingException, JsonProcessingException {
-    log.info("Listener got message {}", message);
-    ChatMessage chatMessage = objectMapper.readValue(message, ChatMessage.class);
+  private void handlePrivateMessage(Message message) {
+    ChatMessage chatMessage = chatPayloadCodec.fromBrokerMessage(message, ChatMessage.class);
+    log.info("Listener got message {}", chatMessage);
+    // the seq header marks the frame as one inbox sync can recover
+    Map<String, Object> headers = chatMessage.getSeq() == null ? Map.of()
+        : Map.of(SlowConsumerWebSocketHandler.SEQ_HEADER, chatMessage.getSeq());
     messagingTemplate.convertAndSendToUser(
-        chatMessage.getReceiver(), "/queue/messages", chatMessage);
-    log.info("Listener send message to Receiver = {} , user {}", chatMessage.getReceiver(), message);
+        chatMessage.getReceiver(), "/queue/messages", chatMessage, headers);
+    log.info("Listener send message to Receiver = {} , user {}", chatMessage.getReceiver(), chatMessage);
+  }
+
+  private void handleRoomDelivery(Message message) {
+    RoomDelivery delivery = chatPayloadCodec.fromBrokerMessage(message, RoomDelivery.class);
+    for (String receiver : delivery.getReceivers()) {
+      messagingTemplate.convertAndSendToUser(receiver, "/queue/messages", delivery.getMessage());
+    }
+  }
+
+  private void handleEventDelivery(Message message) {
+    ConversationEventDelivery delivery = chatPayloadCodec.fromBrokerMessage(message, ConversationEventDelivery.class);
+    ConversationEvent event = delivery.getEvent();
+    if (event.getType() == ConversationEvent.Type.LEFT) {
+      unsubscribe(event.getFrom(), WebSocketConfig.ROOM_TOPIC_PREFIX + event.getRoomId());
+    }
+    for (String receiver : delivery.getReceivers()) {
+      messagingTemplate.convertAndSendToUser(receiver, "/queue/events", delivery.getEvent());
+    }
+  }
+
+  private void handleRoomBroadcast(Message message) {
+    ChatMessage chatMessage = chatPayloadCodec.fromBrokerMessage(message, ChatMessage.class);
+    messagingTemplate.convertAndSend(WebSocketConfig.ROOM_TOPIC_PREFIX + chatMessage.getRoomId(), chatMessage);
+  }
+
+  /**
+   * Unsubscribes the user's sessions on this node from the destination, as
+   * if each had sent an UNSUBSCRIBE frame itself.
+   */
+  private void unsubscribe(String username, String destination) {
+    SimpUser user = simpUserRegistry.getUser(username);
+    if (user == null) {
+      return;
+    }
+    for (SimpSession session : user.getSessions()) {
+      for (SimpSubscription subscription : session.getSubscriptions()) {
+        if (!destination.equals(subscription.getDestination())) {
+          continue;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        accessor.setSessionId(session.getId());
+        accessor.setSubscriptionId(subscription.getId());
+        accessor.setUser(user.getPrincipal());
+        org.springframework.messaging.Message<byte[]> unsubscribe = MessageBuilder.createMessage(new byte[0],
+            accessor.getMessageHeaders());
+        clientInboundChannel.send(unsubscribe);
+        // keeps the user registry in step, it only hears of client frames
+        eventPublisher.publishEvent(new SessionUnsubscribeEvent(this, unsubscribe, user.getPrincipal()));
+        log.info("unsubscribed username={}, sessionId={}, destination={}", username, session.getId(), destination);
+      }
+    }
   }
 
 }
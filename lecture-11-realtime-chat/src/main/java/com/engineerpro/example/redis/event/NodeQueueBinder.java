@@ -0,0 +1,91 @@
+package com.engineerpro.example.redis.event;
+
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.config.MessageQueueConfig;
+import com.engineerpro.example.redis.dto.event.LocalUserConnectedEvent;
+import com.engineerpro.example.redis.dto.event.LocalUserDisconnectedEvent;
+import com.engineerpro.example.redis.service.presence.PresenceService;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps this node's queue bound to exactly the users connected to it. Each
+ * change re-reads the local presence under a per-user lock, so a connect and
+ * a disconnect racing each other still leave the binding matching the
+ * sessions.
+ */
+@Slf4j
+@Component
+public class NodeQueueBinder {
+  private static final int LOCK_STRIPES = 64;
+
+  @Autowired
+  private AmqpAdmin amqpAdmin;
+
+  @Autowired
+  private ConnectionFactory connectionFactory;
+
+  @Autowired
+  private Queue nodeQueue;
+
+  @Autowired
+  private TopicExchange exchange;
+
+  @Autowired
+  private PresenceService presenceService;
+
+  @Value("${chat.amqp.enabled:true}")
+  private boolean amqpEnabled;
+
+  private final Object[] locks = new Object[LOCK_STRIPES];
+
+  @PostConstruct
+  void init() {
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
+    // RabbitAdmin redeclares the queue on a new connection but not the
+    // bindings added at runtime
+    connectionFactory.addConnectionListener(connection -> presenceService.getLocalUsers().forEach(this::sync));
+  }
+
+  @EventListener
+  public void onUserConnected(LocalUserConnectedEvent event) {
+    sync(event.getUsername());
+  }
+
+  @EventListener
+  public void onUserDisconnected(LocalUserDisconnectedEvent event) {
+    sync(event.getUsername());
+  }
+
+  private void sync(String username) {
+    if (!amqpEnabled) {
+      return;
+    }
+    Binding binding = BindingBuilder.bind(nodeQueue).to(exchange)
+        .with(MessageQueueConfig.PRIVATE_ROUTING_KEY_PREFIX + username);
+    synchronized (locks[Math.floorMod(username.hashCode(), LOCK_STRIPES)]) {
+      try {
+        if (presenceService.isConnectedLocally(username)) {
+          amqpAdmin.declareBinding(binding);
+        } else {
+          amqpAdmin.removeBinding(binding);
+        }
+      } catch (Exception e) {
+        log.error("cannot update node queue binding username={}", username, e);
+      }
+    }
+  }
+}
@@ -9,8 +9,10 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.engineerpro.example.redis.exception.CommentNotFoundException;
+import com.engineerpro.example.redis.exception.InvalidInputException;
 import com.engineerpro.example.redis.exception.NoPermissionException;
 import com.engineerpro.example.redis.exception.PostNotFoundException;
+import com.engineerpro.example.redis.exception.RoomNotFoundException;
 import com.engineerpro.example.redis.exception.UserNotFoundException;
 
 @RestControllerAdvice()
@@ -20,12 +22,16 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
 			UserNotFoundException.class, HttpStatus.NOT_FOUND,
 			PostNotFoundException.class, HttpStatus.NOT_FOUND,
 			CommentNotFoundException.class, HttpStatus.NOT_FOUND,
+			RoomNotFoundException.class, HttpStatus.NOT_FOUND,
+			InvalidInputException.class, HttpStatus.BAD_REQUEST,
 			NoPermissionException.class, HttpStatus.FORBIDDEN);
 
 	private static final Map<Class<? extends RuntimeException>, String> EXCEPTION_TO_ERROR_CODE = Map.of(
 			UserNotFoundException.class, "USER_NOT_FOUND",
 			PostNotFoundException.class, "POST_NOT_FOUND",
 			CommentNotFoundException.class, "COMMENT_NOT_FOUND",
+			RoomNotFoundException.class, "ROOM_NOT_FOUND",
+			InvalidInputException.class, "INVALID_INPUT",
 			NoPermissionException.class, "NO_PERMISSION");
 
 	@ExceptionHandler()
@@ -3,26 +3,41 @@ package com.engineerpro.example.redis.model;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(name = "chat_message", indexes = { @Index(columnList = "conversationId, id") })
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class ChatMessage implements Serializable {
+  // assigned by MessageIdGenerator before the row is written; 64-bit ids do
+  // not fit a javascript number, so they travel as strings
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @JsonFormat(shape = JsonFormat.Shape.STRING)
   private Long id;
+  @Column(length = 64)
+  private String conversationId;
   private String content;
   private String sender;
-  private String receiver; // Add this field
+  // null for room messages
+  private String receiver;
+  // set for room messages only
+  private Long roomId;
   private LocalDateTime timestamp;
+  // position in the receiver's inbox, set on the copy delivered to them
+  @Transient
+  private Long seq;
 }
@@ -0,0 +1,31 @@
+package com.engineerpro.example.redis.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "chat_room")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatRoom {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  private String name;
+  private String createdBy;
+  private LocalDateTime createdAt;
+  // set once the room outgrows chat.room.broadcast-threshold and never
+  // cleared, so members switch to /topic/room.{id} at most once
+  private boolean broadcast;
+}
@@ -0,0 +1,31 @@
+package com.engineerpro.example.redis.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "chat_room_member", uniqueConstraints = {
+    @UniqueConstraint(columnNames = { "roomId", "username" }) }, indexes = { @Index(columnList = "username") })
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChatRoomMember {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  private long roomId;
+  private String username;
+  private LocalDateTime joinedAt;
+}
@@ -0,0 +1,52 @@
+package com.engineerpro.example.redis.repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+
+@Repository
+public class ChatMessageBatchRepository {
+  private static final String COLUMNS = " into chat_message "
+      + "(id, conversation_id, content, sender, receiver, room_id, `timestamp`) values (?, ?, ?, ?, ?, ?, ?)";
+  private static final String INSERT_SQL = "insert" + COLUMNS;
+  // only for journal replay, where a segment may have been partly flushed
+  // before the crash
+  private static final String INSERT_IGNORE_SQL = "insert ignore" + COLUMNS;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Inserts the messages as one JDBC batch, which the driver rewrites into
+   * multi-row inserts ({@code rewriteBatchedStatements=true}). The batch runs
+   * in one transaction, so a failed batch can be retried as a whole, and a
+   * duplicate id fails it instead of dropping a message.
+   */
+  @Transactional
+  public void insertAll(List<ChatMessage> messages) {
+    insert(INSERT_SQL, messages);
+  }
+
+  public void insertAllIgnoringDuplicates(List<ChatMessage> messages) {
+    insert(INSERT_IGNORE_SQL, messages);
+  }
+
+  private void insert(String sql, List<ChatMessage> messages) {
+    jdbcTemplate.batchUpdate(sql, messages, messages.size(), (statement, message) -> {
+      statement.setLong(1, message.getId());
+      statement.setString(2, message.getConversationId());
+      statement.setString(3, message.getContent());
+      statement.setString(4, message.getSender());
+      statement.setString(5, message.getReceiver());
+      statement.setObject(6, message.getRoomId(), Types.BIGINT);
+      statement.setTimestamp(7, Timestamp.valueOf(message.getTimestamp()));
+    });
+  }
+}
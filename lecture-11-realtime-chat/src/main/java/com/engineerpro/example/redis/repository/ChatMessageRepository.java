@@ -1,10 +1,23 @@
 package com.engineerpro.example.redis.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import com.engineerpro.example.redis.model.ChatMessage;
 
+/**
+ * History reads are keyset scans on (conversation_id, id): each page seeks to
+ * its boundary id and reads {@code limit} rows, however deep it is.
+ */
 @Repository
-public interface ChatMessageRepository extends JpaRepository<ChatMessage, Integer> {
+public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
+  List<ChatMessage> findByConversationIdOrderByIdDesc(String conversationId, Pageable pageable);
+
+  List<ChatMessage> findByConversationIdAndIdLessThanOrderByIdDesc(String conversationId, long id, Pageable pageable);
+
+  List<ChatMessage> findByConversationIdAndIdGreaterThanOrderByIdAsc(String conversationId, long id,
+      Pageable pageable);
 }
@@ -0,0 +1,25 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.engineerpro.example.redis.model.ChatRoomMember;
+
+@Repository
+public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember, Long> {
+  @Query("select m.username from ChatRoomMember m where m.roomId = :roomId")
+  List<String> findUsernamesByRoomId(@Param("roomId") long roomId);
+
+  boolean existsByRoomIdAndUsername(long roomId, String username);
+
+  @Modifying
+  @Transactional
+  @Query("delete from ChatRoomMember m where m.roomId = :roomId and m.username = :username")
+  int deleteByRoomIdAndUsername(@Param("roomId") long roomId, @Param("username") String username);
+}
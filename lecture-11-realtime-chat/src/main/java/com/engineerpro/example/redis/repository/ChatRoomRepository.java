@@ -0,0 +1,19 @@
+package com.engineerpro.example.redis.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.engineerpro.example.redis.model.ChatRoom;
+
+@Repository
+public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
+  // 1 only for the caller that switched the room
+  @Modifying
+  @Transactional
+  @Query("update ChatRoom r set r.broadcast = true where r.id = :id and r.broadcast = false")
+  int markBroadcast(@Param("id") long id);
+}
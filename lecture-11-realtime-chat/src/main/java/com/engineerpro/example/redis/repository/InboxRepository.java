@@ -0,0 +1,76 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Per-user message sequence ({@code chat-seq:{user}}) and a capped inbox of
+ * the latest messages scored by that sequence ({@code chat-inbox:{user}}).
+ * Both keys share a hash tag so the append script also works on a cluster.
+ * Only the inbox expires: a sequence that restarted at 1 would fall behind
+ * the cursors clients already hold, so the counter is kept for good.
+ */
+@Repository
+public class InboxRepository {
+  private static final RedisScript<Long> APPEND = new DefaultRedisScript<>(
+      "local seq = redis.call('incr', KEYS[1]) "
+          + "redis.call('zadd', KEYS[2], seq, ARGV[1]) "
+          + "redis.call('zremrangebyrank', KEYS[2], 0, -tonumber(ARGV[2]) - 1) "
+          + "redis.call('persist', KEYS[1]) "
+          + "redis.call('expire', KEYS[2], ARGV[3]) "
+          + "return seq",
+      Long.class);
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  private static String sequenceKey(String username) {
+    return "chat-seq:{" + username + "}";
+  }
+
+  private static String inboxKey(String username) {
+    return "chat-inbox:{" + username + "}";
+  }
+
+  /**
+   * Gives the entry the user's next sequence number, stores it and drops the
+   * oldest entries beyond {@code maxSize}. Returns the sequence number.
+   */
+  public long append(String username, String entry, int maxSize, long ttlSeconds) {
+    return redisTemplate.execute(APPEND, List.of(sequenceKey(username), inboxKey(username)), entry,
+        Integer.toString(maxSize), Long.toString(ttlSeconds));
+  }
+
+  /**
+   * Up to {@code limit} entries with a sequence number above
+   * {@code sinceSeq}, oldest first, keyed by sequence number.
+   */
+  public Map<Long, String> getAfter(String username, long sinceSeq, int limit) {
+    Set<TypedTuple<String>> entries = redisTemplate.opsForZSet()
+        .rangeByScoreWithScores(inboxKey(username), sinceSeq + 1, Double.POSITIVE_INFINITY, 0, limit);
+    Map<Long, String> result = new LinkedHashMap<>();
+    for (TypedTuple<String> entry : entries) {
+      result.put(entry.getScore().longValue(), entry.getValue());
+    }
+    return result;
+  }
+
+  public Long getOldestSeq(String username) {
+    Set<TypedTuple<String>> oldest = redisTemplate.opsForZSet().rangeWithScores(inboxKey(username), 0, 0);
+    return oldest.isEmpty() ? null : oldest.iterator().next().getScore().longValue();
+  }
+
+  public long getLatestSeq(String username) {
+    String seq = redisTemplate.opsForValue().get(sequenceKey(username));
+    return seq == null ? 0 : Long.parseLong(seq);
+  }
+}
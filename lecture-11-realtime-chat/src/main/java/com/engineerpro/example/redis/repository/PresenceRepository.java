@@ -0,0 +1,138 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Each user has a sorted set of live sessions, member {@code node|session},
+ * scored by the time the session expires unless its node refreshes it. A
+ * crashed node's sessions therefore age out on their own, and a user is
+ * online while any member scores in the future.
+ */
+@Repository
+public class PresenceRepository {
+  private static final String PRESENCE_KEY_PREFIX = "presence:";
+  private static final String LAST_SEEN_KEY_PREFIX = "last-seen:";
+  private static final String MEMBER_SEPARATOR = "|";
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  public static String member(String nodeId, String sessionId) {
+    return nodeId + MEMBER_SEPARATOR + sessionId;
+  }
+
+  public static String nodeOf(String member) {
+    return member.substring(0, member.indexOf(MEMBER_SEPARATOR));
+  }
+
+  /**
+   * Adds or refreshes sessions and the users' last seen time in one
+   * pipeline, dropping sessions that already expired.
+   */
+  public void refreshSessions(Map<String, List<String>> membersByUsername, long now, long sessionTtlMillis,
+      long lastSeenTtlMillis) {
+    redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+        for (Map.Entry<String, List<String>> entry : membersByUsername.entrySet()) {
+          String key = PRESENCE_KEY_PREFIX + entry.getKey();
+          for (String member : entry.getValue()) {
+            ops.opsForZSet().add(key, member, now + sessionTtlMillis);
+          }
+          ops.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+          ops.expire(key, sessionTtlMillis, TimeUnit.MILLISECONDS);
+          ops.opsForValue().set(LAST_SEEN_KEY_PREFIX + entry.getKey(), Long.toString(now), lastSeenTtlMillis,
+              TimeUnit.MILLISECONDS);
+        }
+        return null;
+      }
+    });
+  }
+
+  public void removeSession(String username, String member, long now, long lastSeenTtlMillis) {
+    redisTemplate.opsForZSet().remove(PRESENCE_KEY_PREFIX + username, member);
+    redisTemplate.opsForValue().set(LAST_SEEN_KEY_PREFIX + username, Long.toString(now), lastSeenTtlMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public Set<String> getLiveMembers(String username, long now) {
+    return redisTemplate.opsForZSet().rangeByScore(PRESENCE_KEY_PREFIX + username, now, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Returns the live members of each user that has any, read in one pipeline.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Set<String>> getLiveMembers(Collection<String> usernames, long now) {
+    List<String> keys = new ArrayList<>(usernames);
+    List<Object> members = redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+        for (String username : keys) {
+          ops.opsForZSet().rangeByScore(PRESENCE_KEY_PREFIX + username, now, Double.POSITIVE_INFINITY);
+        }
+        return null;
+      }
+    });
+    Map<String, Set<String>> result = new HashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      Set<String> userMembers = (Set<String>) members.get(i);
+      if (userMembers != null && !userMembers.isEmpty()) {
+        result.put(keys.get(i), userMembers);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of live sessions of each user, read in one pipeline.
+   */
+  public Map<String, Long> countLiveSessions(Collection<String> usernames, long now) {
+    List<String> keys = new ArrayList<>(usernames);
+    List<Object> counts = redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+        for (String username : keys) {
+          ops.opsForZSet().count(PRESENCE_KEY_PREFIX + username, now, Double.POSITIVE_INFINITY);
+        }
+        return null;
+      }
+    });
+    Map<String, Long> result = new HashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      result.put(keys.get(i), (Long) counts.get(i));
+    }
+    return result;
+  }
+
+  public Map<String, Long> getLastSeen(Collection<String> usernames) {
+    List<String> keys = new ArrayList<>(usernames);
+    List<String> values = redisTemplate.opsForValue()
+        .multiGet(keys.stream().map(username -> LAST_SEEN_KEY_PREFIX + username).toList());
+    Map<String, Long> result = new HashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      if (values.get(i) != null) {
+        result.put(keys.get(i), Long.parseLong(values.get(i)));
+      }
+    }
+    return result;
+  }
+}
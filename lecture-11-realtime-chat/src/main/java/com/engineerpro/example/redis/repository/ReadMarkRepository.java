@@ -0,0 +1,43 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Highest message id a user has sent a read receipt for, per conversation
+ * ({@code read-mark:{user}:<conversation>}). Shared by all nodes and never
+ * expired, so a receipt can never move the mark the other side holds back.
+ */
+@Repository
+public class ReadMarkRepository {
+  // ids are compared as decimal strings, Lua numbers lose the low bits of
+  // 64-bit ids
+  private static final RedisScript<Long> ADVANCE = new DefaultRedisScript<>(
+      "local mark = redis.call('get', KEYS[1]) "
+          + "if mark and (#mark > #ARGV[1] or (#mark == #ARGV[1] and mark >= ARGV[1])) then return 0 end "
+          + "redis.call('set', KEYS[1], ARGV[1]) "
+          + "return 1",
+      Long.class);
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  private static String markKey(String username, String conversationId) {
+    return "read-mark:{" + username + "}:" + conversationId;
+  }
+
+  /**
+   * Moves the mark to {@code messageId}. Returns false when the mark already
+   * is at or past it.
+   */
+  public boolean advance(String username, String conversationId, long messageId) {
+    Long advanced = redisTemplate.execute(ADVANCE, List.of(markKey(username, conversationId)),
+        Long.toString(messageId));
+    return advanced != null && advanced == 1;
+  }
+}
@@ -0,0 +1,130 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Cached member set of a room ({@code room-members:{id}}) and a counter
+ * bumped by every membership change ({@code room-members-version:{id}}).
+ * Changes update the cached set in place; a set loaded from the database is
+ * only stored when no change happened since the load started, so a slow
+ * reload cannot bring back a member who just left. The room's delivery mode
+ * is cached in {@code room-broadcast:{id}}; it only ever turns on, so the
+ * key does not expire.
+ */
+@Repository
+public class RoomMemberCacheRepository {
+  private static final String MEMBERS_KEY_PREFIX = "room-members:";
+  private static final String VERSION_KEY_PREFIX = "room-members-version:";
+  private static final String BROADCAST_KEY_PREFIX = "room-broadcast:";
+
+  // members are added 1000 at a time, Lua cannot unpack a room of
+  // chat.room.max-members in one call
+  private static final RedisScript<Long> PUT = new DefaultRedisScript<>(
+      "if (redis.call('get', KEYS[2]) or '0') ~= ARGV[1] then return 0 end "
+          + "redis.call('del', KEYS[1]) "
+          + "for i = 3, #ARGV, 1000 do "
+          + "redis.call('sadd', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end "
+          + "redis.call('expire', KEYS[1], ARGV[2]) "
+          + "return 1",
+      Long.class);
+
+  // only a cached set is updated, a missing one is loaded on the next read
+  private static final RedisScript<Long> ADD = new DefaultRedisScript<>(
+      "redis.call('incr', KEYS[2]) "
+          + "if redis.call('exists', KEYS[1]) == 1 then "
+          + "for i = 1, #ARGV, 1000 do "
+          + "redis.call('sadd', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end end "
+          + "return 1",
+      Long.class);
+
+  private static final RedisScript<Long> REMOVE = new DefaultRedisScript<>(
+      "redis.call('incr', KEYS[2]) "
+          + "redis.call('srem', KEYS[1], ARGV[1]) "
+          + "return 1",
+      Long.class);
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  private static String membersKey(long roomId) {
+    return MEMBERS_KEY_PREFIX + "{" + roomId + "}";
+  }
+
+  private static String versionKey(long roomId) {
+    return VERSION_KEY_PREFIX + "{" + roomId + "}";
+  }
+
+  private static String broadcastKey(long roomId) {
+    return BROADCAST_KEY_PREFIX + "{" + roomId + "}";
+  }
+
+  /**
+   * Cached member set, empty when the room is not cached.
+   */
+  public Set<String> get(long roomId) {
+    return redisTemplate.opsForSet().members(membersKey(roomId));
+  }
+
+  /**
+   * Membership version to pass to {@link #put}, read before loading the
+   * members from the database.
+   */
+  public String getVersion(long roomId) {
+    String version = redisTemplate.opsForValue().get(versionKey(roomId));
+    return version == null ? "0" : version;
+  }
+
+  /**
+   * Replaces the cached set unless the membership changed after
+   * {@code version} was read. Returns whether the set was stored.
+   */
+  public boolean put(long roomId, Collection<String> members, long ttlSeconds, String version) {
+    if (members.isEmpty()) {
+      return false;
+    }
+    List<String> args = new ArrayList<>(members.size() + 2);
+    args.add(version);
+    args.add(Long.toString(ttlSeconds));
+    args.addAll(members);
+    Long stored = redisTemplate.execute(PUT, List.of(membersKey(roomId), versionKey(roomId)),
+        args.toArray(new Object[0]));
+    return stored != null && stored == 1;
+  }
+
+  public void add(long roomId, Collection<String> members) {
+    if (members.isEmpty()) {
+      return;
+    }
+    redisTemplate.execute(ADD, List.of(membersKey(roomId), versionKey(roomId)), members.toArray(new Object[0]));
+  }
+
+  public void remove(long roomId, String member) {
+    redisTemplate.execute(REMOVE, List.of(membersKey(roomId), versionKey(roomId)), member);
+  }
+
+  /**
+   * Cached delivery mode, null when the room is not cached.
+   */
+  public Boolean getBroadcast(long roomId) {
+    String broadcast = redisTemplate.opsForValue().get(broadcastKey(roomId));
+    return broadcast == null ? null : "1".equals(broadcast);
+  }
+
+  // a mode loaded from the database never overwrites a switch made meanwhile
+  public void putBroadcastIfAbsent(long roomId, boolean broadcast) {
+    redisTemplate.opsForValue().setIfAbsent(broadcastKey(roomId), broadcast ? "1" : "0");
+  }
+
+  public void markBroadcast(long roomId) {
+    redisTemplate.opsForValue().set(broadcastKey(roomId), "1");
+  }
+}
@@ -2,14 +2,20 @@ package com.engineerpro.example.redis.repository;
 
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.engineerpro.example.redis.model.User;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findByUsername(String username);
+
+    @Query("select u.username from User u where u.username like concat(:prefix, '%')")
+    Set<String> findUsernamesStartingWith(@Param("prefix") String prefix);
 }
@@ -0,0 +1,118 @@
+package com.engineerpro.example.redis.service.message;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Optional local append-only log of messages that are queued but not yet in
+ * MySQL, one JSON line per message. The writer rotates to a new segment on
+ * every flush and deletes a segment once all of its messages are inserted, so
+ * only unflushed messages are ever on disk. Lines are pushed to the OS on
+ * every append but not fsynced: the journal survives a process crash, not a
+ * host crash. Enabled by default; disabled when
+ * {@code chat.write-behind.journal-dir} is set to an empty value.
+ */
+@Component
+public class ChatMessageJournal {
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  @Value("${chat.write-behind.journal-dir:}")
+  private String journalDir;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private final AtomicLong segmentSequence = new AtomicLong();
+  private Path directory;
+  private Path currentSegment;
+  private BufferedWriter writer;
+
+  @PostConstruct
+  void init() throws IOException {
+    if (isEnabled()) {
+      directory = Paths.get(journalDir);
+      Files.createDirectories(directory);
+    }
+  }
+
+  public boolean isEnabled() {
+    return !journalDir.isBlank();
+  }
+
+  /**
+   * Segments left by a previous run, oldest first.
+   */
+  public List<Path> getSegments() throws IOException {
+    if (!isEnabled()) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+    }
+  }
+
+  public List<ChatMessage> read(Path segment) throws IOException {
+    List<ChatMessage> messages = new ArrayList<>();
+    for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+      // a crash can leave the last line half written
+      try {
+        messages.add(objectMapper.readValue(line, ChatMessage.class));
+      } catch (IOException e) {
+        break;
+      }
+    }
+    return messages;
+  }
+
+  public void append(ChatMessage message) throws IOException {
+    if (!isEnabled()) {
+      return;
+    }
+    if (Objects.isNull(writer)) {
+      currentSegment = directory.resolve(String.format("%d-%06d%s", System.currentTimeMillis(),
+          segmentSequence.incrementAndGet(), SEGMENT_SUFFIX));
+      writer = Files.newBufferedWriter(currentSegment, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+    }
+    writer.write(objectMapper.writeValueAsString(message));
+    writer.newLine();
+    writer.flush();
+  }
+
+  /**
+   * Closes the current segment and returns it, or null if nothing was
+   * appended since the last rotation. The next append opens a new one.
+   */
+  public Path rotate() throws IOException {
+    if (Objects.isNull(writer)) {
+      return null;
+    }
+    Path segment = currentSegment;
+    writer.close();
+    writer = null;
+    currentSegment = null;
+    return segment;
+  }
+
+  public void delete(Path segment) throws IOException {
+    Files.deleteIfExists(segment);
+  }
+}
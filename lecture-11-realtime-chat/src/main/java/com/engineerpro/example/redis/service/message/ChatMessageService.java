@@ -0,0 +1,24 @@
+package com.engineerpro.example.redis.service.message;
+
+import com.engineerpro.example.redis.dto.SendMessageInput;
+import com.engineerpro.example.redis.dto.message.GetMessagesResponse;
+import com.engineerpro.example.redis.model.ChatMessage;
+
+public interface ChatMessageService {
+  /**
+   * Assigns the message its id and hands it to the write-behind queue; it is
+   * in MySQL a few milliseconds later.
+   */
+  ChatMessage saveMessage(String sender, SendMessageInput input);
+
+  ChatMessage saveRoomMessage(String sender, long roomId, String content);
+
+  /**
+   * Returns up to {@code limit} messages of the conversation with
+   * {@code peer}: the latest ones, the ones right before {@code before} or
+   * the ones right after {@code after}.
+   */
+  GetMessagesResponse getMessages(String username, String peer, Long before, Long after, int limit);
+
+  GetMessagesResponse getMessages(String conversationId, Long before, Long after, int limit);
+}
@@ -0,0 +1,81 @@
+package com.engineerpro.example.redis.service.message;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.dto.SendMessageInput;
+import com.engineerpro.example.redis.dto.message.GetMessagesResponse;
+import com.engineerpro.example.redis.model.ChatMessage;
+import com.engineerpro.example.redis.repository.ChatMessageRepository;
+
+@Service
+public class ChatMessageServiceImpl implements ChatMessageService {
+  @Autowired
+  private ChatMessageRepository chatMessageRepository;
+
+  @Autowired
+  private ChatMessageWriter chatMessageWriter;
+
+  @Autowired
+  private MessageIdGenerator messageIdGenerator;
+
+  @Override
+  public ChatMessage saveMessage(String sender, SendMessageInput input) {
+    ChatMessage chatMessage = ChatMessage.builder()
+        .id(messageIdGenerator.nextId())
+        .conversationId(Conversations.direct(sender, input.getReceiver()))
+        .content(input.getContent())
+        .sender(sender)
+        .receiver(input.getReceiver())
+        .timestamp(LocalDateTime.now())
+        .build();
+    chatMessageWriter.write(chatMessage);
+    return chatMessage;
+  }
+
+  @Override
+  public ChatMessage saveRoomMessage(String sender, long roomId, String content) {
+    ChatMessage chatMessage = ChatMessage.builder()
+        .id(messageIdGenerator.nextId())
+        .conversationId(Conversations.room(roomId))
+        .content(content)
+        .sender(sender)
+        .roomId(roomId)
+        .timestamp(LocalDateTime.now())
+        .build();
+    chatMessageWriter.write(chatMessage);
+    return chatMessage;
+  }
+
+  @Override
+  public GetMessagesResponse getMessages(String username, String peer, Long before, Long after, int limit) {
+    return getMessages(Conversations.direct(username, peer), before, after, limit);
+  }
+
+  @Override
+  public GetMessagesResponse getMessages(String conversationId, Long before, Long after, int limit) {
+    // one extra row tells whether another page exists
+    PageRequest page = PageRequest.of(0, limit + 1);
+    List<ChatMessage> messages;
+    if (Objects.nonNull(after)) {
+      messages = chatMessageRepository.findByConversationIdAndIdGreaterThanOrderByIdAsc(conversationId, after, page);
+    } else if (Objects.nonNull(before)) {
+      messages = chatMessageRepository.findByConversationIdAndIdLessThanOrderByIdDesc(conversationId, before, page);
+    } else {
+      messages = chatMessageRepository.findByConversationIdOrderByIdDesc(conversationId, page);
+    }
+    boolean hasMore = messages.size() > limit;
+    messages = new ArrayList<>(messages.subList(0, Math.min(limit, messages.size())));
+    if (Objects.isNull(after)) {
+      Collections.reverse(messages);
+    }
+    return GetMessagesResponse.builder().messages(messages).hasMore(hasMore).build();
+  }
+}
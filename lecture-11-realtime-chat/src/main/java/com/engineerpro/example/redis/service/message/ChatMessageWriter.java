@@ -0,0 +1,191 @@
+package com.engineerpro.example.redis.service.message;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.model.ChatMessage;
+import com.engineerpro.example.redis.repository.ChatMessageBatchRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind persistence for chat messages. Senders only append to the
+ * journal and a bounded queue; one flusher thread drains the queue every
+ * {@code chat.write-behind.flush-interval-ms} and inserts it in batches of
+ * {@code chat.write-behind.batch-size}. When the queue is full, for example
+ * while MySQL is down, the sender writes its own message synchronously, so
+ * memory stays bounded and nothing is dropped.
+ */
+@Slf4j
+@Component
+public class ChatMessageWriter {
+  @Autowired
+  private ChatMessageBatchRepository chatMessageBatchRepository;
+
+  @Autowired
+  private ChatMessageJournal chatMessageJournal;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${chat.write-behind.queue-capacity:100000}")
+  private int queueCapacity;
+
+  @Value("${chat.write-behind.batch-size:500}")
+  private int batchSize;
+
+  @Value("${chat.write-behind.flush-interval-ms:5}")
+  private long flushIntervalMs;
+
+  private record Pending(ChatMessage message, long enqueuedNanos) {
+  }
+
+  // guards journal appends and rotation together with the queue, so every
+  // message in a rotated segment is already in the queue when it is drained
+  private final Object appendLock = new Object();
+  // only touched by the flusher thread
+  private final List<Pending> unflushed = new ArrayList<>();
+  private final List<Path> unflushedSegments = new ArrayList<>();
+
+  private BlockingQueue<Pending> queue;
+  private ScheduledExecutorService flusher;
+  private DistributionSummary batchSizes;
+  private Timer flushLag;
+  private Counter flushFailures;
+  private Counter synchronousWrites;
+  private Counter duplicateIds;
+
+  @PostConstruct
+  void start() throws IOException {
+    queue = new ArrayBlockingQueue<>(queueCapacity);
+    batchSizes = DistributionSummary.builder("chat.write-behind.batch.size").register(meterRegistry);
+    flushLag = Timer.builder("chat.write-behind.flush.lag")
+        .description("time from accepting a message to its batch being inserted")
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+    flushFailures = Counter.builder("chat.write-behind.flush.failures").register(meterRegistry);
+    synchronousWrites = Counter.builder("chat.write-behind.synchronous-writes").register(meterRegistry);
+    duplicateIds = Counter.builder("chat.write-behind.duplicate-ids")
+        .description("messages rejected because their id is already stored")
+        .register(meterRegistry);
+    Gauge.builder("chat.write-behind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+    replayJournal();
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "chat-message-flusher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    flusher.shutdown();
+    flusher.awaitTermination(10, TimeUnit.SECONDS);
+    flush();
+    if (!queue.isEmpty() || !unflushed.isEmpty()) {
+      log.warn("stopping with unflushed chat messages queued={}, pending={}", queue.size(), unflushed.size());
+    }
+  }
+
+  public void write(ChatMessage message) {
+    Pending pending = new Pending(message, System.nanoTime());
+    synchronized (appendLock) {
+      try {
+        chatMessageJournal.append(message);
+      } catch (IOException e) {
+        log.error("cannot journal chat message id={}", message.getId(), e);
+      }
+      if (queue.offer(pending)) {
+        return;
+      }
+    }
+    synchronousWrites.increment();
+    chatMessageBatchRepository.insertAll(List.of(message));
+  }
+
+  private void flush() {
+    try {
+      // a failed batch is retried before anything new is drained, which lets
+      // the queue fill up and push senders onto the synchronous path
+      if (unflushed.isEmpty()) {
+        List<Pending> drained = new ArrayList<>();
+        Path segment;
+        synchronized (appendLock) {
+          segment = chatMessageJournal.rotate();
+          queue.drainTo(drained);
+        }
+        if (Objects.nonNull(segment)) {
+          unflushedSegments.add(segment);
+        }
+        unflushed.addAll(drained);
+      }
+      while (!unflushed.isEmpty()) {
+        List<Pending> batch = unflushed.subList(0, Math.min(batchSize, unflushed.size()));
+        insertBatch(batch.stream().map(Pending::message).toList());
+        batchSizes.record(batch.size());
+        flushLag.record(System.nanoTime() - batch.get(0).enqueuedNanos(), TimeUnit.NANOSECONDS);
+        batch.clear();
+      }
+      for (Path segment : unflushedSegments) {
+        chatMessageJournal.delete(segment);
+      }
+      unflushedSegments.clear();
+    } catch (Exception e) {
+      flushFailures.increment();
+      log.error("cannot flush chat messages pending={}", unflushed.size(), e);
+    }
+  }
+
+  // a duplicate would fail the batch on every retry, so the batch is split up
+  // to store the rest and report each rejected message
+  private void insertBatch(List<ChatMessage> messages) {
+    try {
+      chatMessageBatchRepository.insertAll(messages);
+    } catch (DuplicateKeyException e) {
+      for (ChatMessage message : messages) {
+        try {
+          chatMessageBatchRepository.insertAll(List.of(message));
+        } catch (DuplicateKeyException duplicate) {
+          duplicateIds.increment();
+          log.error("chat message id={} is already stored, check that chat.worker-id is unique per node; "
+              + "dropping conversationId={}, sender={}", message.getId(), message.getConversationId(),
+              message.getSender());
+        }
+      }
+    }
+  }
+
+  private void replayJournal() throws IOException {
+    for (Path segment : chatMessageJournal.getSegments()) {
+      List<ChatMessage> messages = chatMessageJournal.read(segment);
+      for (int from = 0; from < messages.size(); from += batchSize) {
+        chatMessageBatchRepository.insertAllIgnoringDuplicates(
+            messages.subList(from, Math.min(from + batchSize, messages.size())));
+      }
+      chatMessageJournal.delete(segment);
+      log.info("replayed chat journal segment={}, messages={}", segment, messages.size());
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.engineerpro.example.redis.service.message;
+
+public interface ConversationEventService {
+  /**
+   * Forwards a typing indicator unless one from the same user in the same
+   * conversation went out within the typing interval.
+   */
+  void typing(String username, String receiver, Long roomId);
+
+  /**
+   * Records that the user has read up to the message; receipts are collapsed
+   * to the highest message and sent on the next flush.
+   */
+  void read(String username, String receiver, Long roomId, long messageId);
+}
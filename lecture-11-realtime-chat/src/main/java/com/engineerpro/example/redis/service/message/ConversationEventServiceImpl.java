@@ -0,0 +1,165 @@
+package com.engineerpro.example.redis.service.message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
+import com.engineerpro.example.redis.config.MessageQueueConfig;
+import com.engineerpro.example.redis.dto.message.ConversationEvent;
+import com.engineerpro.example.redis.dto.message.ConversationEventDelivery;
+import com.engineerpro.example.redis.event.ChatBrokerPublisher;
+import com.engineerpro.example.redis.exception.InvalidInputException;
+import com.engineerpro.example.redis.exception.NoPermissionException;
+import com.engineerpro.example.redis.repository.ReadMarkRepository;
+import com.engineerpro.example.redis.service.presence.PresenceService;
+import com.engineerpro.example.redis.service.room.RoomService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Typing indicators and read receipts go straight from the sender's node to
+ * the nodes of the participants that are online, as non-persistent broker
+ * messages. Nothing is written to the database or the inbox. Broadcast
+ * rooms get no events, since each one would reach every member.
+ */
+@Slf4j
+@Service
+public class ConversationEventServiceImpl implements ConversationEventService {
+  @Autowired
+  private PresenceService presenceService;
+
+  @Autowired
+  private RoomService roomService;
+
+  @Autowired
+  private ChatBrokerPublisher chatBrokerPublisher;
+
+  @Autowired
+  private ChatPayloadCodec chatPayloadCodec;
+
+  @Autowired
+  private ReadMarkRepository readMarkRepository;
+
+  @Value("${chat.events.typing-interval-ms:3000}")
+  private long typingIntervalMs;
+
+  private record Conversation(String username, String receiver, Long roomId) {
+  }
+
+  private final Map<Conversation, Long> lastTyping = new ConcurrentHashMap<>();
+  private final Map<Conversation, Long> pendingReads = new ConcurrentHashMap<>();
+
+  /**
+   * Throttled before the membership lookup, so the typing frames a client
+   * sends on every keystroke cost no redis round trip until the interval has
+   * passed.
+   */
+  @Override
+  public void typing(String username, String receiver, Long roomId) {
+    long now = System.currentTimeMillis();
+    boolean[] forward = { false };
+    lastTyping.compute(new Conversation(username, receiver, roomId), (key, last) -> {
+      if (last != null && now - last < typingIntervalMs) {
+        return last;
+      }
+      forward[0] = true;
+      return now;
+    });
+    if (!forward[0]) {
+      return;
+    }
+    Collection<String> participants = participants(username, receiver, roomId);
+    if (participants.isEmpty()) {
+      return;
+    }
+    deliver(ConversationEvent.builder().type(ConversationEvent.Type.TYPING).from(username).roomId(roomId).build(),
+        participants, typingIntervalMs);
+  }
+
+  @Override
+  public void read(String username, String receiver, Long roomId, long messageId) {
+    // rejects rooms the user is not a member of
+    participants(username, receiver, roomId);
+    pendingReads.merge(new Conversation(username, receiver, roomId), messageId, Math::max);
+  }
+
+  @Scheduled(fixedDelayString = "${chat.events.read-flush-interval-ms:1000}")
+  public void flushReads() {
+    long now = System.currentTimeMillis();
+    for (Conversation conversation : pendingReads.keySet()) {
+      Long messageId = pendingReads.remove(conversation);
+      if (messageId == null) {
+        continue;
+      }
+      try {
+        // reading older messages again, here or on another node, sends nothing
+        if (!readMarkRepository.advance(conversation.username(), conversationId(conversation), messageId)) {
+          continue;
+        }
+        Collection<String> participants = participants(conversation.username(), conversation.receiver(),
+            conversation.roomId());
+        deliver(ConversationEvent.builder()
+            .type(ConversationEvent.Type.READ)
+            .from(conversation.username())
+            .roomId(conversation.roomId())
+            .messageId(messageId)
+            .build(), participants, 0);
+      } catch (RuntimeException e) {
+        log.warn("cannot send read receipt username={}, roomId={}", conversation.username(), conversation.roomId(), e);
+      }
+    }
+    // forget conversations that went quiet
+    lastTyping.values().removeIf(last -> now - last >= typingIntervalMs);
+  }
+
+  private static String conversationId(Conversation conversation) {
+    return Objects.nonNull(conversation.roomId()) ? Conversations.room(conversation.roomId())
+        : Conversations.direct(conversation.username(), conversation.receiver());
+  }
+
+  private Collection<String> participants(String username, String receiver, Long roomId) {
+    if (Objects.nonNull(roomId)) {
+      Set<String> members = roomService.getMembers(roomId);
+      if (!members.contains(username)) {
+        throw new NoPermissionException();
+      }
+      if (roomService.isBroadcast(roomId)) {
+        return List.of();
+      }
+      return members.stream().filter(member -> !member.equals(username)).toList();
+    }
+    if (Objects.isNull(receiver) || receiver.equals(username)) {
+      throw new InvalidInputException();
+    }
+    return List.of(receiver);
+  }
+
+  private void deliver(ConversationEvent event, Collection<String> participants, long expirationMs) {
+    Map<String, List<String>> receiversByNode = new HashMap<>();
+    presenceService.getNodes(participants).forEach((participant, nodes) -> nodes
+        .forEach(node -> receiversByNode.computeIfAbsent(node, key -> new ArrayList<>()).add(participant)));
+    receiversByNode.forEach((node, receivers) -> {
+      Message message = chatPayloadCodec.toBrokerMessage(
+          ConversationEventDelivery.builder().event(event).receivers(receivers).build());
+      message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT);
+      // a typing indicator that waited longer than the interval is stale
+      if (expirationMs > 0) {
+        message.getMessageProperties().setExpiration(String.valueOf(expirationMs));
+      }
+      chatBrokerPublisher.publish(MessageQueueConfig.EVENT_ROUTING_KEY_PREFIX + node, message);
+    });
+  }
+}
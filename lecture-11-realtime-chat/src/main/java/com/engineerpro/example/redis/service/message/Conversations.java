@@ -0,0 +1,24 @@
+package com.engineerpro.example.redis.service.message;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public class Conversations {
+  private Conversations() {
+  }
+
+  /**
+   * Id of the 1:1 conversation between two users, the same whichever of them
+   * sends. Usernames are emails, so the pair is hashed into a fixed length key
+   * that keeps the history index small.
+   */
+  public static String direct(String username, String otherUsername) {
+    String first = username.compareTo(otherUsername) <= 0 ? username : otherUsername;
+    String second = first.equals(username) ? otherUsername : username;
+    return UUID.nameUUIDFromBytes((first + '\n' + second).getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  public static String room(long roomId) {
+    return "room-" + roomId;
+  }
+}
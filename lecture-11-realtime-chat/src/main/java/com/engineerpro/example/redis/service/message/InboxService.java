@@ -0,0 +1,14 @@
+package com.engineerpro.example.redis.service.message;
+
+import com.engineerpro.example.redis.dto.message.SyncResponse;
+import com.engineerpro.example.redis.model.ChatMessage;
+
+public interface InboxService {
+  /**
+   * Stores the message in the receiver's inbox and returns the copy to
+   * deliver, carrying its sequence number.
+   */
+  ChatMessage append(ChatMessage chatMessage);
+
+  SyncResponse sync(String username, long sinceSeq, Integer limit);
+}
@@ -0,0 +1,82 @@
+package com.engineerpro.example.redis.service.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.dto.message.SyncResponse;
+import com.engineerpro.example.redis.model.ChatMessage;
+import com.engineerpro.example.redis.repository.InboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class InboxServiceImpl implements InboxService {
+  @Autowired
+  private InboxRepository inboxRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${chat.inbox.max-size:1000}")
+  private int maxSize;
+
+  @Value("${chat.inbox.ttl-days:7}")
+  private long ttlDays;
+
+  @Value("${chat.inbox.max-sync-batch:500}")
+  private int maxSyncBatch;
+
+  @Override
+  public ChatMessage append(ChatMessage chatMessage) {
+    String entry;
+    try {
+      entry = objectMapper.writeValueAsString(chatMessage);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("cannot serialize chat message", e);
+    }
+    long seq = inboxRepository.append(chatMessage.getReceiver(), entry, maxSize, TimeUnit.DAYS.toSeconds(ttlDays));
+    return chatMessage.toBuilder().seq(seq).build();
+  }
+
+  @Override
+  public SyncResponse sync(String username, long sinceSeq, Integer limit) {
+    int batch = Objects.isNull(limit) ? maxSyncBatch : Math.max(1, Math.min(limit, maxSyncBatch));
+    long latestSeq = inboxRepository.getLatestSeq(username);
+    // one extra entry tells whether another batch exists
+    Map<Long, String> entries = inboxRepository.getAfter(username, sinceSeq, batch + 1);
+    List<ChatMessage> messages = new ArrayList<>();
+    for (Map.Entry<Long, String> entry : entries.entrySet()) {
+      if (messages.size() == batch) {
+        break;
+      }
+      try {
+        messages.add(objectMapper.readValue(entry.getValue(), ChatMessage.class).toBuilder().seq(entry.getKey())
+            .build());
+      } catch (JsonProcessingException e) {
+        log.warn("skip unreadable inbox entry username={}, seq={}", username, entry.getKey());
+      }
+    }
+    Long oldestSeq = inboxRepository.getOldestSeq(username);
+    // a cursor ahead of the sequence means the counter was lost, for example
+    // in a redis flush, and restarted; the client has to reload and take
+    // latestSeq as its new cursor
+    boolean truncated = latestSeq < sinceSeq
+        || latestSeq > sinceSeq && (Objects.isNull(oldestSeq) || oldestSeq > sinceSeq + 1);
+    return SyncResponse.builder()
+        .messages(messages)
+        .latestSeq(latestSeq)
+        .hasMore(entries.size() > batch)
+        .truncated(truncated)
+        .build();
+  }
+}
@@ -0,0 +1,55 @@
+package com.engineerpro.example.redis.service.message;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Time-ordered 64-bit ids made of milliseconds since {@link #EPOCH_MILLIS}, a
+ * 10 bit worker id and a 12 bit per-millisecond sequence, so a node can hand
+ * out ids without asking the database and history stays ordered by id. Each
+ * node needs its own {@code chat.worker-id}: two nodes sharing one would hand
+ * out the same ids, so startup fails when it is not set.
+ */
+@Component
+public class MessageIdGenerator {
+  // 2024-01-01T00:00:00Z
+  private static final long EPOCH_MILLIS = 1704067200000L;
+  private static final int WORKER_ID_BITS = 10;
+  private static final int SEQUENCE_BITS = 12;
+  private static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+  private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+  @Value("${chat.worker-id:-1}")
+  private long workerId;
+
+  private long lastMillis = -1;
+  private long sequence;
+
+  @PostConstruct
+  void validate() {
+    if (workerId < 0 || workerId > MAX_WORKER_ID) {
+      throw new IllegalStateException(
+          "chat.worker-id must be set to a value between 0 and " + MAX_WORKER_ID + " that is unique per node");
+    }
+  }
+
+  public synchronized long nextId() {
+    // never go back in time, even if the wall clock does
+    long now = Math.max(System.currentTimeMillis(), lastMillis);
+    if (now == lastMillis) {
+      sequence = (sequence + 1) & MAX_SEQUENCE;
+      if (sequence == 0) {
+        while (now <= lastMillis) {
+          Thread.onSpinWait();
+          now = System.currentTimeMillis();
+        }
+      }
+    } else {
+      sequence = 0;
+    }
+    lastMillis = now;
+    return ((now - EPOCH_MILLIS) << (WORKER_ID_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+  }
+}
@@ -0,0 +1,30 @@
+package com.engineerpro.example.redis.service.presence;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.engineerpro.example.redis.dto.presence.UserPresence;
+
+public interface PresenceService {
+  String getNodeId();
+
+  boolean isOnline(String username);
+
+  boolean isConnectedLocally(String username);
+
+  Set<String> getLocalUsers();
+
+  /**
+   * Nodes currently holding at least one session of the user.
+   */
+  Set<String> getNodes(String username);
+
+  /**
+   * Nodes holding each user's sessions; users that are offline are left out.
+   */
+  Map<String, Set<String>> getNodes(Collection<String> usernames);
+
+  List<UserPresence> getPresence(List<String> usernames);
+}
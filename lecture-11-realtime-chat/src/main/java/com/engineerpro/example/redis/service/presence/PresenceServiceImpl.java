@@ -0,0 +1,189 @@
+package com.engineerpro.example.redis.service.presence;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import com.engineerpro.example.redis.dto.event.LocalUserConnectedEvent;
+import com.engineerpro.example.redis.dto.event.LocalUserDisconnectedEvent;
+import com.engineerpro.example.redis.dto.presence.UserPresence;
+import com.engineerpro.example.redis.repository.PresenceRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the STOMP sessions connected to this node and keeps them alive in
+ * redis with a heartbeat every {@code chat.presence.heartbeat-interval-ms}.
+ * A session that misses heartbeats for {@code chat.presence.session-ttl-ms}
+ * counts as gone, which covers nodes that die without a disconnect event.
+ */
+@Slf4j
+@Service
+public class PresenceServiceImpl implements PresenceService {
+  @Autowired
+  private PresenceRepository presenceRepository;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Value("${chat.node-id:}")
+  private String configuredNodeId;
+
+  @Value("${chat.presence.session-ttl-ms:30000}")
+  private long sessionTtlMillis;
+
+  @Value("${chat.presence.last-seen-ttl-days:30}")
+  private long lastSeenTtlDays;
+
+  // session id -> username
+  private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+  // username -> number of sessions on this node
+  private final Map<String, Integer> localSessionCounts = new ConcurrentHashMap<>();
+  private String nodeId;
+
+  @PostConstruct
+  void init() {
+    nodeId = configuredNodeId.isBlank() ? defaultNodeId() : configuredNodeId;
+    log.info("chat node id={}", nodeId);
+  }
+
+  @Override
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    Principal user = event.getUser();
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (Objects.isNull(user) || Objects.isNull(sessionId)) {
+      return;
+    }
+    localSessions.put(sessionId, user.getName());
+    if (localSessionCounts.merge(user.getName(), 1, Integer::sum) == 1) {
+      eventPublisher.publishEvent(LocalUserConnectedEvent.builder().username(user.getName()).build());
+    }
+    presenceRepository.refreshSessions(Map.of(user.getName(), List.of(PresenceRepository.member(nodeId, sessionId))),
+        System.currentTimeMillis(), sessionTtlMillis, lastSeenTtlMillis());
+  }
+
+  @EventListener
+  public void onDisconnected(SessionDisconnectEvent event) {
+    String username = localSessions.remove(event.getSessionId());
+    if (Objects.isNull(username)) {
+      return;
+    }
+    if (Objects.isNull(localSessionCounts.computeIfPresent(username, (key, count) -> count > 1 ? count - 1 : null))) {
+      eventPublisher.publishEvent(LocalUserDisconnectedEvent.builder().username(username).build());
+    }
+    presenceRepository.removeSession(username, PresenceRepository.member(nodeId, event.getSessionId()),
+        System.currentTimeMillis(), lastSeenTtlMillis());
+  }
+
+  @Scheduled(fixedDelayString = "${chat.presence.heartbeat-interval-ms:10000}")
+  public void heartbeat() {
+    Map<String, List<String>> membersByUsername = new HashMap<>();
+    localSessions.forEach((sessionId, username) -> membersByUsername
+        .computeIfAbsent(username, key -> new ArrayList<>())
+        .add(PresenceRepository.member(nodeId, sessionId)));
+    if (membersByUsername.isEmpty()) {
+      return;
+    }
+    try {
+      presenceRepository.refreshSessions(membersByUsername, System.currentTimeMillis(), sessionTtlMillis,
+          lastSeenTtlMillis());
+    } catch (Exception e) {
+      log.error("cannot refresh presence sessions={}", localSessions.size(), e);
+    }
+  }
+
+  @PreDestroy
+  void removeLocalSessions() {
+    long now = System.currentTimeMillis();
+    localSessions.forEach((sessionId, username) -> presenceRepository.removeSession(username,
+        PresenceRepository.member(nodeId, sessionId), now, lastSeenTtlMillis()));
+    localSessions.clear();
+    localSessionCounts.clear();
+  }
+
+  @Override
+  public boolean isConnectedLocally(String username) {
+    return localSessionCounts.containsKey(username);
+  }
+
+  @Override
+  public Set<String> getLocalUsers() {
+    return Set.copyOf(localSessionCounts.keySet());
+  }
+
+  @Override
+  public boolean isOnline(String username) {
+    return !presenceRepository.getLiveMembers(username, System.currentTimeMillis()).isEmpty();
+  }
+
+  @Override
+  public Set<String> getNodes(String username) {
+    return presenceRepository.getLiveMembers(username, System.currentTimeMillis()).stream()
+        .map(PresenceRepository::nodeOf)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public Map<String, Set<String>> getNodes(Collection<String> usernames) {
+    Map<String, Set<String>> nodes = new HashMap<>();
+    presenceRepository.getLiveMembers(usernames, System.currentTimeMillis())
+        .forEach((username, members) -> nodes.put(username,
+            members.stream().map(PresenceRepository::nodeOf).collect(Collectors.toSet())));
+    return nodes;
+  }
+
+  @Override
+  public List<UserPresence> getPresence(List<String> usernames) {
+    Map<String, Long> sessionCounts = presenceRepository.countLiveSessions(usernames, System.currentTimeMillis());
+    Map<String, Long> lastSeen = presenceRepository.getLastSeen(usernames);
+    return usernames.stream()
+        .map(username -> UserPresence.builder()
+            .username(username)
+            .online(sessionCounts.getOrDefault(username, 0L) > 0)
+            .lastSeenAt(lastSeen.get(username))
+            .build())
+        .toList();
+  }
+
+  private long lastSeenTtlMillis() {
+    return TimeUnit.DAYS.toMillis(lastSeenTtlDays);
+  }
+
+  private static String defaultNodeId() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      host = "unknown";
+    }
+    // the pid keeps two nodes on one host apart
+    return host + "-" + ProcessHandle.current().pid();
+  }
+}
@@ -0,0 +1,28 @@
+package com.engineerpro.example.redis.service.room;
+
+import java.util.List;
+import java.util.Set;
+
+import com.engineerpro.example.redis.dto.message.GetMessagesResponse;
+import com.engineerpro.example.redis.dto.room.GetRoomResponse;
+import com.engineerpro.example.redis.model.ChatMessage;
+
+public interface RoomService {
+  GetRoomResponse createRoom(String creator, String name, List<String> members);
+
+  GetRoomResponse getRoom(String username, long roomId);
+
+  GetRoomResponse addMembers(String username, long roomId, List<String> usernames);
+
+  void leaveRoom(String username, long roomId);
+
+  Set<String> getMembers(long roomId);
+
+  boolean isMember(String username, long roomId);
+
+  boolean isBroadcast(long roomId);
+
+  ChatMessage sendMessage(String sender, long roomId, String content);
+
+  GetMessagesResponse getMessages(String username, long roomId, Long before, Long after, int limit);
+}
@@ -0,0 +1,294 @@
+package com.engineerpro.example.redis.service.room;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.codec.ChatPayloadCodec;
+import com.engineerpro.example.redis.config.MessageQueueConfig;
+import com.engineerpro.example.redis.config.WebSocketConfig;
+import com.engineerpro.example.redis.dto.message.ConversationEvent;
+import com.engineerpro.example.redis.dto.message.ConversationEventDelivery;
+import com.engineerpro.example.redis.dto.message.GetMessagesResponse;
+import com.engineerpro.example.redis.dto.room.GetRoomResponse;
+import com.engineerpro.example.redis.dto.room.RoomDelivery;
+import com.engineerpro.example.redis.event.ChatBrokerPublisher;
+import com.engineerpro.example.redis.exception.InvalidInputException;
+import com.engineerpro.example.redis.exception.NoPermissionException;
+import com.engineerpro.example.redis.exception.RoomNotFoundException;
+import com.engineerpro.example.redis.exception.UserNotFoundException;
+import com.engineerpro.example.redis.model.ChatMessage;
+import com.engineerpro.example.redis.model.ChatRoom;
+import com.engineerpro.example.redis.model.ChatRoomMember;
+import com.engineerpro.example.redis.repository.ChatRoomMemberRepository;
+import com.engineerpro.example.redis.repository.ChatRoomRepository;
+import com.engineerpro.example.redis.repository.RoomMemberCacheRepository;
+import com.engineerpro.example.redis.repository.UserRepository;
+import com.engineerpro.example.redis.service.message.ChatMessageService;
+import com.engineerpro.example.redis.service.message.Conversations;
+import com.engineerpro.example.redis.service.presence.PresenceService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Room messages are fanned out per node, not per member: the online members
+ * are grouped by the node holding their sessions and each node gets one
+ * broker message listing its receivers. A room that grows past
+ * {@code chat.room.broadcast-threshold} members is switched for good to
+ * publishing once to /topic/room.{id} on every node; its online members get
+ * a BROADCAST event telling them to subscribe. Members who leave get a LEFT
+ * event and their sessions are unsubscribed from the topic.
+ */
+@Slf4j
+@Service
+public class RoomServiceImpl implements RoomService {
+  @Autowired
+  private ChatRoomRepository chatRoomRepository;
+
+  @Autowired
+  private ChatRoomMemberRepository chatRoomMemberRepository;
+
+  @Autowired
+  private RoomMemberCacheRepository roomMemberCacheRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ChatMessageService chatMessageService;
+
+  @Autowired
+  private PresenceService presenceService;
+
+  @Autowired
+  private ChatBrokerPublisher chatBrokerPublisher;
+
+  @Autowired
+  private SimpMessagingTemplate messagingTemplate;
+
+  @Autowired
+  private ChatPayloadCodec chatPayloadCodec;
+
+  @Value("${chat.room.max-members:10000}")
+  private int maxMembers;
+
+  @Value("${chat.room.broadcast-threshold:200}")
+  private int broadcastThreshold;
+
+  @Value("${chat.room.member-cache-ttl-seconds:3600}")
+  private long memberCacheTtlSeconds;
+
+  @Value("${chat.stomp-relay.enabled:false}")
+  private boolean relayEnabled;
+
+  @Override
+  public GetRoomResponse createRoom(String creator, String name, List<String> members) {
+    Set<String> usernames = new LinkedHashSet<>();
+    usernames.add(creator);
+    if (Objects.nonNull(members)) {
+      usernames.addAll(members);
+    }
+    if (usernames.size() > maxMembers) {
+      throw new InvalidInputException();
+    }
+    checkUsersExist(usernames);
+    ChatRoom room = chatRoomRepository.save(ChatRoom.builder()
+        .name(name)
+        .createdBy(creator)
+        .createdAt(LocalDateTime.now())
+        .broadcast(usernames.size() > broadcastThreshold)
+        .build());
+    roomMemberCacheRepository.putBroadcastIfAbsent(room.getId(), room.isBroadcast());
+    return toResponse(room, saveMembers(room.getId(), usernames));
+  }
+
+  @Override
+  public GetRoomResponse getRoom(String username, long roomId) {
+    ChatRoom room = chatRoomRepository.findById(roomId).orElseThrow(RoomNotFoundException::new);
+    Set<String> members = getMembers(roomId);
+    if (!members.contains(username)) {
+      throw new NoPermissionException();
+    }
+    return toResponse(room, members);
+  }
+
+  @Override
+  public GetRoomResponse addMembers(String username, long roomId, List<String> usernames) {
+    ChatRoom room = chatRoomRepository.findById(roomId).orElseThrow(RoomNotFoundException::new);
+    Set<String> members = getMembers(roomId);
+    if (!members.contains(username)) {
+      throw new NoPermissionException();
+    }
+    Set<String> added = new LinkedHashSet<>(usernames);
+    added.removeAll(members);
+    if (members.size() + added.size() > maxMembers) {
+      throw new InvalidInputException();
+    }
+    checkUsersExist(added);
+    Set<String> inserted = saveMembers(roomId, added);
+    roomMemberCacheRepository.add(roomId, inserted);
+    Set<String> updated = new HashSet<>(members);
+    updated.addAll(inserted);
+    if (!room.isBroadcast() && updated.size() > broadcastThreshold
+        && chatRoomRepository.markBroadcast(roomId) == 1) {
+      room.setBroadcast(true);
+      roomMemberCacheRepository.markBroadcast(roomId);
+      sendEvent(ConversationEvent.builder().type(ConversationEvent.Type.BROADCAST).from(username).roomId(roomId)
+          .build(), updated);
+      log.info("room switched to broadcast roomId={}, members={}", roomId, updated.size());
+    }
+    return toResponse(room, updated);
+  }
+
+  @Override
+  public void leaveRoom(String username, long roomId) {
+    if (chatRoomMemberRepository.deleteByRoomIdAndUsername(roomId, username) == 0) {
+      throw new NoPermissionException();
+    }
+    roomMemberCacheRepository.remove(roomId, username);
+    // the leaver's nodes drop its room topic subscriptions
+    sendEvent(ConversationEvent.builder().type(ConversationEvent.Type.LEFT).from(username).roomId(roomId).build(),
+        List.of(username));
+  }
+
+  @Override
+  public Set<String> getMembers(long roomId) {
+    Set<String> members = roomMemberCacheRepository.get(roomId);
+    if (Objects.nonNull(members) && !members.isEmpty()) {
+      return members;
+    }
+    // read first: a change committed after this makes the put below a no-op
+    String version = roomMemberCacheRepository.getVersion(roomId);
+    members = new HashSet<>(chatRoomMemberRepository.findUsernamesByRoomId(roomId));
+    roomMemberCacheRepository.put(roomId, members, memberCacheTtlSeconds, version);
+    return members;
+  }
+
+  @Override
+  public boolean isMember(String username, long roomId) {
+    return getMembers(roomId).contains(username);
+  }
+
+  @Override
+  public boolean isBroadcast(long roomId) {
+    Boolean broadcast = roomMemberCacheRepository.getBroadcast(roomId);
+    if (Objects.nonNull(broadcast)) {
+      return broadcast;
+    }
+    ChatRoom room = chatRoomRepository.findById(roomId).orElseThrow(RoomNotFoundException::new);
+    roomMemberCacheRepository.putBroadcastIfAbsent(roomId, room.isBroadcast());
+    return room.isBroadcast();
+  }
+
+  @Override
+  public ChatMessage sendMessage(String sender, long roomId, String content) {
+    Set<String> members = getMembers(roomId);
+    if (!members.contains(sender)) {
+      throw new NoPermissionException();
+    }
+    ChatMessage chatMessage = chatMessageService.saveRoomMessage(sender, roomId, content);
+    if (isBroadcast(roomId)) {
+      broadcast(chatMessage);
+    } else {
+      fanOutByNode(chatMessage, members);
+    }
+    return chatMessage;
+  }
+
+  @Override
+  public GetMessagesResponse getMessages(String username, long roomId, Long before, Long after, int limit) {
+    if (!isMember(username, roomId)) {
+      throw new NoPermissionException();
+    }
+    return chatMessageService.getMessages(Conversations.room(roomId), before, after, limit);
+  }
+
+  private void broadcast(ChatMessage chatMessage) {
+    // the relay already spans all nodes; in-memory brokers need every node to
+    // publish to its own subscribers
+    if (relayEnabled) {
+      messagingTemplate.convertAndSend(WebSocketConfig.ROOM_TOPIC_PREFIX + chatMessage.getRoomId(), chatMessage);
+      return;
+    }
+    chatBrokerPublisher.publish(MessageQueueConfig.ROOM_BROADCAST_ROUTING_KEY,
+        chatPayloadCodec.toBrokerMessage(chatMessage));
+  }
+
+  private void fanOutByNode(ChatMessage chatMessage, Set<String> members) {
+    Map<String, List<String>> receiversByNode = receiversByNode(members);
+    receiversByNode.forEach((node, receivers) -> chatBrokerPublisher.publish(
+        MessageQueueConfig.NODE_ROUTING_KEY_PREFIX + node,
+        chatPayloadCodec.toBrokerMessage(RoomDelivery.builder().message(chatMessage).receivers(receivers).build())));
+    log.info("fanned out room message roomId={}, nodes={}", chatMessage.getRoomId(), receiversByNode.size());
+  }
+
+  private void sendEvent(ConversationEvent event, Collection<String> receivers) {
+    receiversByNode(receivers).forEach((node, nodeReceivers) -> chatBrokerPublisher.publish(
+        MessageQueueConfig.EVENT_ROUTING_KEY_PREFIX + node,
+        chatPayloadCodec.toBrokerMessage(ConversationEventDelivery.builder().event(event).receivers(nodeReceivers)
+            .build())));
+  }
+
+  private Map<String, List<String>> receiversByNode(Collection<String> members) {
+    Map<String, List<String>> receiversByNode = new HashMap<>();
+    presenceService.getNodes(members).forEach((member, nodes) -> nodes
+        .forEach(node -> receiversByNode.computeIfAbsent(node, key -> new ArrayList<>()).add(member)));
+    return receiversByNode;
+  }
+
+  private GetRoomResponse toResponse(ChatRoom room, Set<String> members) {
+    return GetRoomResponse.builder()
+        .room(room)
+        .members(List.copyOf(members))
+        .broadcast(room.isBroadcast())
+        .build();
+  }
+
+  private void checkUsersExist(Set<String> usernames) {
+    for (String username : usernames) {
+      if (userRepository.findByUsername(username).isEmpty()) {
+        throw new UserNotFoundException();
+      }
+    }
+  }
+
+  /**
+   * Inserts the members and returns the ones that were not already added by
+   * a concurrent request.
+   */
+  private Set<String> saveMembers(long roomId, Set<String> usernames) {
+    LocalDateTime now = LocalDateTime.now();
+    try {
+      chatRoomMemberRepository.saveAll(usernames.stream()
+          .map(username -> ChatRoomMember.builder().roomId(roomId).username(username).joinedAt(now).build())
+          .toList());
+      return usernames;
+    } catch (DataIntegrityViolationException e) {
+      // a concurrent add of one of the members rolled the whole batch back
+      log.warn("room members added concurrently, inserting one by one roomId={}", roomId);
+    }
+    Set<String> inserted = new LinkedHashSet<>();
+    for (String username : usernames) {
+      try {
+        chatRoomMemberRepository.save(ChatRoomMember.builder().roomId(roomId).username(username).joinedAt(now).build());
+        inserted.add(username);
+      } catch (DataIntegrityViolationException e) {
+        log.info("room member already added roomId={}, username={}", roomId, username);
+      }
+    }
+    return inserted;
+  }
+}
@@ -8,11 +8,51 @@ stompClient.onConnect = (frame) => {
     setConnected(true);
     console.log('Connected: ' + frame);
     stompClient.subscribe('/user/queue/messages', (greeting) => {
-        console.log("got msg", JSON.parse(greeting.body));
-        appendNewMessage(JSON.parse(greeting.body).content);
+        const message = JSON.parse(greeting.body);
+        console.log("got msg", message);
+        appendNewMessage(message.content);
+        rememberSeq(message.seq);
+        markRead(message);
     });
+    stompClient.subscribe('/user/queue/events', (frame) => {
+        const event = JSON.parse(frame.body);
+        console.log(event.type === 'TYPING' ? event.from + ' is typing' : event.from + ' read up to ' + event.messageId);
+    });
+    stompClient.subscribe('/user/queue/sync', (response) => {
+        const sync = JSON.parse(response.body);
+        if (sync.truncated) {
+            // missed messages are gone from the inbox or the sequence restarted;
+            // history has to be reloaded and the cursor starts over at latestSeq
+            console.log('inbox truncated, reload history');
+            localStorage.setItem('lastSeq', sync.latestSeq);
+        }
+        sync.messages.forEach((message) => {
+            appendNewMessage(message.content);
+            rememberSeq(message.seq);
+        });
+        if (sync.hasMore) {
+            requestSync();
+        } else {
+            rememberSeq(sync.latestSeq);
+        }
+    });
+    requestSync();
 };
 
+// highest inbox sequence number seen, so a reconnect only fetches what was missed
+function rememberSeq(seq) {
+    if (seq && seq > Number(localStorage.getItem('lastSeq') || 0)) {
+        localStorage.setItem('lastSeq', seq);
+    }
+}
+
+function requestSync() {
+    stompClient.publish({
+        destination: "/app/sync",
+        body: JSON.stringify({ 'sinceSeq': Number(localStorage.getItem('lastSeq') || 0) })
+    });
+}
+
 stompClient.onWebSocketError = (error) => {
     console.error('Error with websocket', error);
 };
@@ -55,6 +95,27 @@ function sendMessage() {
     });
 }
 
+// the server forwards at most one typing update per conversation per interval
+function sendTyping() {
+    if (!stompClient.connected || !$("#userId").val()) {
+        return;
+    }
+    stompClient.publish({
+        destination: "/app/typing",
+        body: JSON.stringify({ 'receiver': $("#userId").val() })
+    });
+}
+
+// own messages come back on the same queue and need no receipt
+function markRead(message) {
+    if (message.receiver && message.receiver !== $("#userId").val()) {
+        stompClient.publish({
+            destination: "/app/read",
+            body: JSON.stringify({ 'receiver': message.sender, 'messageId': message.id })
+        });
+    }
+}
+
 function sendName() {
     stompClient.publish({
         destination: "/app/hello",
@@ -71,5 +132,6 @@ $(function () {
     $("#connect").click(() => connect());
     $("#disconnect").click(() => disconnect());
     $("#send").click(() => sendMessage());
+    $("#messageContent").on('input', () => sendTyping());
 });
 
@@ -0,0 +1,37 @@
+#!/bin/bash
+# Feed read throughput while slow clients are uploading images.
+#
+# Start the app once normally and once with --app.virtual-threads.enabled=true,
+# run this script against each and compare the "Requests/sec" and latency
+# lines printed by hey. With platform threads the uploads hold Tomcat's 200
+# workers and feed reads queue behind them.
+#
+# usage: SESSION=<session cookie of a logged in user> ./benchmark/slow-upload.sh [base url]
+# needs: curl, hey (https://github.com/rakyll/hey)
+
+BASE_URL=${1:-http://localhost:8080}
+SLOW_UPLOADS=${SLOW_UPLOADS:-400}
+UPLOAD_RATE=${UPLOAD_RATE:-16k}
+IMAGE_BYTES=${IMAGE_BYTES:-1000000}
+DURATION=${DURATION:-30s}
+CONCURRENCY=${CONCURRENCY:-50}
+
+if [ -z "$SESSION" ]; then
+  echo "SESSION is required, copy it from the browser after logging in at $BASE_URL/login"
+  exit 1
+fi
+
+payload=$(mktemp)
+trap 'rm -f "$payload"; kill $(jobs -p) 2>/dev/null' EXIT
+printf '{"caption":"benchmark","base64ImageString":"data:image/jpeg;base64,%s"}' \
+  "$(head -c "$IMAGE_BYTES" /dev/urandom | base64 -w0)" > "$payload"
+
+echo "starting $SLOW_UPLOADS uploads at $UPLOAD_RATE/s each"
+for i in $(seq "$SLOW_UPLOADS"); do
+  curl -s -o /dev/null --limit-rate "$UPLOAD_RATE" -H "Cookie: SESSION=$SESSION" \
+    -H 'Content-Type: application/json' --data-binary "@$payload" "$BASE_URL/posts" &
+done
+sleep 5
+
+echo "reading feeds for $DURATION with $CONCURRENCY clients"
+hey -z "$DURATION" -c "$CONCURRENCY" -H "Cookie: SESSION=$SESSION" "$BASE_URL/precomputed-feeds?page=1&limit=10"
@@ -0,0 +1,148 @@
+package com.engineerpro.example.redis.codec;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.engineerpro.example.redis.model.Post;
+import com.engineerpro.example.redis.model.Profile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encode and decode cost of the binary codecs against Jackson for a typical
+ * profile, post and 500 entry feed. Entry sizes are printed once per fork.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBenchmark {
+  private static final TypeReference<List<Long>> POST_ID_LIST = new TypeReference<>() {
+  };
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ProfileCodec profileCodec = new ProfileCodec();
+  private final PostCodec postCodec = new PostCodec();
+  private final PostIdListCodec postIdListCodec = new PostIdListCodec();
+
+  private Profile profile;
+  private Post post;
+  private List<Long> postIds;
+
+  private byte[] profileBinary;
+  private byte[] profileJson;
+  private byte[] postBinary;
+  private byte[] postJson;
+  private byte[] postIdsBinary;
+  private byte[] postIdsJson;
+
+  @Setup
+  public void setUp() throws Exception {
+    profile = Profile.builder()
+        .id(1_204_337)
+        .userId("108349272735610246193")
+        .displayName("Nguyen Van An")
+        .username("nguyenvanan")
+        .profileImageUrl("http://localhost:9000/spring-boot/3f1c9a2e-5b7d-4e41-9d0a-7c2b8e6f1a04.png")
+        .bio("coffee, film cameras and long walks")
+        .version(7)
+        .build();
+    Date createdAt = new Date(1_697_000_000_000L);
+    post = Post.builder()
+        .id(48_211_905)
+        .createdBy(profile)
+        .imageUrl("http://localhost:9000/spring-boot/9b0e4d77-2a61-4c3f-8f5e-1d6a0c9b7e21.jpg")
+        .caption("sunset over the river #saigon #travel")
+        .createdAt(createdAt)
+        .lastModifiedAt(new Date(createdAt.getTime() + 93_000))
+        .version(12)
+        .build();
+    // a fanned-out feed: newest first, with gaps from other authors
+    postIds = new ArrayList<>();
+    long postId = 48_211_905;
+    for (int i = 0; i < 500; i++) {
+      postIds.add(postId);
+      postId -= 1 + (i * 7919) % 40;
+    }
+
+    profileBinary = profileCodec.encode(profile);
+    profileJson = objectMapper.writeValueAsBytes(profile);
+    postBinary = postCodec.encode(post);
+    postJson = objectMapper.writeValueAsBytes(post);
+    postIdsBinary = postIdListCodec.encode(postIds);
+    postIdsJson = objectMapper.writeValueAsBytes(postIds);
+    System.out.printf("%nbytes per entry: profile binary=%d json=%d, post binary=%d json=%d, "
+        + "500 post ids binary=%d json=%d%n", profileBinary.length, profileJson.length, postBinary.length,
+        postJson.length, postIdsBinary.length, postIdsJson.length);
+  }
+
+  @Benchmark
+  public byte[] encodeProfileBinary() {
+    return profileCodec.encode(profile);
+  }
+
+  @Benchmark
+  public byte[] encodeProfileJson() throws Exception {
+    return objectMapper.writeValueAsBytes(profile);
+  }
+
+  @Benchmark
+  public Profile decodeProfileBinary() {
+    return profileCodec.decode(profileBinary);
+  }
+
+  @Benchmark
+  public Profile decodeProfileJson() throws Exception {
+    return objectMapper.readValue(profileJson, Profile.class);
+  }
+
+  @Benchmark
+  public byte[] encodePostBinary() {
+    return postCodec.encode(post);
+  }
+
+  @Benchmark
+  public byte[] encodePostJson() throws Exception {
+    return objectMapper.writeValueAsBytes(post);
+  }
+
+  @Benchmark
+  public Post decodePostBinary() {
+    return postCodec.decode(postBinary);
+  }
+
+  @Benchmark
+  public Post decodePostJson() throws Exception {
+    return objectMapper.readValue(postJson, Post.class);
+  }
+
+  @Benchmark
+  public byte[] encodePostIdsBinary() {
+    return postIdListCodec.encode(postIds);
+  }
+
+  @Benchmark
+  public byte[] encodePostIdsJson() throws Exception {
+    return objectMapper.writeValueAsBytes(postIds);
+  }
+
+  @Benchmark
+  public List<Long> decodePostIdsBinary() {
+    return postIdListCodec.decode(postIdsBinary);
+  }
+
+  @Benchmark
+  public List<Long> decodePostIdsJson() throws Exception {
+    return objectMapper.readValue(postIdsJson, POST_ID_LIST);
+  }
+}
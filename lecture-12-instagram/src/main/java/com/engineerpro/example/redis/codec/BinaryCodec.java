@@ -0,0 +1,22 @@
+package com.engineerpro.example.redis.codec;
+
+/**
+ * Compact binary form of a value cached in redis. Codecs write their fields
+ * in a fixed order with no names or type tags, so one codec can nest another
+ * inside its own entry.
+ */
+public interface BinaryCodec<T> {
+  void write(BinaryWriter writer, T value);
+
+  T read(BinaryReader reader);
+
+  default byte[] encode(T value) {
+    BinaryWriter writer = new BinaryWriter();
+    write(writer, value);
+    return writer.toByteArray();
+  }
+
+  default T decode(byte[] bytes) {
+    return read(new BinaryReader(bytes));
+  }
+}
@@ -0,0 +1,33 @@
+package com.engineerpro.example.redis.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Plugs a {@link BinaryCodec} into a {@code RedisTemplate} as its value
+ * serializer.
+ */
+public class BinaryCodecRedisSerializer<T> implements RedisSerializer<T> {
+  private final BinaryCodec<T> codec;
+
+  public BinaryCodecRedisSerializer(BinaryCodec<T> codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public byte[] serialize(T value) throws SerializationException {
+    return value == null ? null : codec.encode(value);
+  }
+
+  @Override
+  public T deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      return codec.decode(bytes);
+    } catch (IllegalArgumentException e) {
+      throw new SerializationException("cannot decode cached entry", e);
+    }
+  }
+}
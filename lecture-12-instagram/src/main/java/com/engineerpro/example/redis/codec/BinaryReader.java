@@ -0,0 +1,49 @@
+package com.engineerpro.example.redis.codec;
+
+import java.nio.charset.StandardCharsets;
+
+public class BinaryReader {
+  private final byte[] bytes;
+  private int position;
+
+  public BinaryReader(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  public int readByte() {
+    checkAvailable(1);
+    return bytes[position++] & 0xFF;
+  }
+
+  public long readVarint() {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      checkAvailable(1);
+      byte b = bytes[position++];
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("malformed varint");
+  }
+
+  public long readZigzag() {
+    long zigzag = readVarint();
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+
+  public String readString() {
+    int length = (int) readVarint();
+    checkAvailable(length);
+    String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return value;
+  }
+
+  private void checkAvailable(int count) {
+    if (count < 0 || position + count > bytes.length) {
+      throw new IllegalArgumentException("truncated entry");
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.engineerpro.example.redis.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class BinaryWriter {
+  private byte[] buffer = new byte[64];
+  private int size;
+
+  public void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) value;
+  }
+
+  public void writeVarint(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[size++] = (byte) value;
+  }
+
+  // small negative numbers stay small instead of taking ten bytes
+  public void writeZigzag(long value) {
+    writeVarint((value << 1) ^ (value >> 63));
+  }
+
+  public void writeString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, size, bytes.length);
+    size += bytes.length;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  private void ensureCapacity(int extra) {
+    if (size + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.engineerpro.example.redis.codec;
+
+import java.util.Date;
+import java.util.Objects;
+
+import com.engineerpro.example.redis.model.Post;
+
+/**
+ * Post entry: a schema version byte, a bitmask of the optional fields that
+ * are set, the id and version as varints, then the set fields in order.
+ * Timestamps are epoch millis, the last modification as a zigzag delta from
+ * creation, and the author is nested as a {@link ProfileCodec} entry.
+ * Comments and likes change far more often than the post and are not part of
+ * the entry.
+ */
+public class PostCodec implements BinaryCodec<Post> {
+  static final int SCHEMA_VERSION = 1;
+
+  private static final int HAS_IMAGE_URL = 1;
+  private static final int HAS_CAPTION = 1 << 1;
+  private static final int HAS_CREATED_AT = 1 << 2;
+  private static final int HAS_LAST_MODIFIED_AT = 1 << 3;
+  private static final int HAS_CREATED_BY = 1 << 4;
+
+  private final ProfileCodec profileCodec = new ProfileCodec();
+
+  @Override
+  public void write(BinaryWriter writer, Post post) {
+    writer.writeByte(SCHEMA_VERSION);
+    int present = (Objects.nonNull(post.getImageUrl()) ? HAS_IMAGE_URL : 0)
+        | (Objects.nonNull(post.getCaption()) ? HAS_CAPTION : 0)
+        | (Objects.nonNull(post.getCreatedAt()) ? HAS_CREATED_AT : 0)
+        | (Objects.nonNull(post.getLastModifiedAt()) ? HAS_LAST_MODIFIED_AT : 0)
+        | (Objects.nonNull(post.getCreatedBy()) ? HAS_CREATED_BY : 0);
+    writer.writeByte(present);
+    writer.writeVarint(post.getId());
+    writer.writeVarint(post.getVersion());
+    if ((present & HAS_IMAGE_URL) != 0) {
+      writer.writeString(post.getImageUrl());
+    }
+    if ((present & HAS_CAPTION) != 0) {
+      writer.writeString(post.getCaption());
+    }
+    long createdAt = 0;
+    if ((present & HAS_CREATED_AT) != 0) {
+      createdAt = post.getCreatedAt().getTime();
+      writer.writeVarint(createdAt);
+    }
+    if ((present & HAS_LAST_MODIFIED_AT) != 0) {
+      writer.writeZigzag(post.getLastModifiedAt().getTime() - createdAt);
+    }
+    if ((present & HAS_CREATED_BY) != 0) {
+      profileCodec.write(writer, post.getCreatedBy());
+    }
+  }
+
+  @Override
+  public Post read(BinaryReader reader) {
+    int schemaVersion = reader.readByte();
+    if (schemaVersion != SCHEMA_VERSION) {
+      throw new IllegalArgumentException("unknown post schema version " + schemaVersion);
+    }
+    int present = reader.readByte();
+    Post post = new Post();
+    post.setId((int) reader.readVarint());
+    post.setVersion(reader.readVarint());
+    if ((present & HAS_IMAGE_URL) != 0) {
+      post.setImageUrl(reader.readString());
+    }
+    if ((present & HAS_CAPTION) != 0) {
+      post.setCaption(reader.readString());
+    }
+    long createdAt = 0;
+    if ((present & HAS_CREATED_AT) != 0) {
+      createdAt = reader.readVarint();
+      post.setCreatedAt(new Date(createdAt));
+    }
+    if ((present & HAS_LAST_MODIFIED_AT) != 0) {
+      post.setLastModifiedAt(new Date(createdAt + reader.readZigzag()));
+    }
+    if ((present & HAS_CREATED_BY) != 0) {
+      post.setCreatedBy(profileCodec.read(reader));
+    }
+    return post;
+  }
+}
@@ -0,0 +1,38 @@
+package com.engineerpro.example.redis.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs a list of post ids as a varint count followed by zigzag varint
+ * deltas from the previous id. Feed lists are close to sorted, so most
+ * entries take one or two bytes instead of eight.
+ * <p>
+ * Only archived feed blocks are packed. The hot feeds stay plain redis lists
+ * of ids, since fan-out, trimming and paging push, trim and range over single
+ * entries, which a packed value would turn into read-modify-write of the
+ * whole feed.
+ */
+public class PostIdListCodec implements BinaryCodec<List<Long>> {
+  @Override
+  public void write(BinaryWriter writer, List<Long> postIds) {
+    writer.writeVarint(postIds.size());
+    long previous = 0;
+    for (Long postId : postIds) {
+      writer.writeZigzag(postId - previous);
+      previous = postId;
+    }
+  }
+
+  @Override
+  public List<Long> read(BinaryReader reader) {
+    int count = (int) reader.readVarint();
+    List<Long> postIds = new ArrayList<>(count);
+    long previous = 0;
+    for (int i = 0; i < count; i++) {
+      previous += reader.readZigzag();
+      postIds.add(previous);
+    }
+    return postIds;
+  }
+}
@@ -0,0 +1,77 @@
+package com.engineerpro.example.redis.codec;
+
+import java.util.Objects;
+
+import com.engineerpro.example.redis.model.Profile;
+
+/**
+ * Profile entry: a schema version byte, a bitmask of the string fields that
+ * are set, the id and version as varints, then the set strings in field
+ * order. Changing the layout means bumping {@link #SCHEMA_VERSION}; entries
+ * written with another version fail to decode and are treated as misses.
+ */
+public class ProfileCodec implements BinaryCodec<Profile> {
+  static final int SCHEMA_VERSION = 1;
+
+  private static final int HAS_USER_ID = 1;
+  private static final int HAS_PROFILE_IMAGE_URL = 1 << 1;
+  private static final int HAS_DISPLAY_NAME = 1 << 2;
+  private static final int HAS_USERNAME = 1 << 3;
+  private static final int HAS_BIO = 1 << 4;
+
+  @Override
+  public void write(BinaryWriter writer, Profile profile) {
+    writer.writeByte(SCHEMA_VERSION);
+    int present = (Objects.nonNull(profile.getUserId()) ? HAS_USER_ID : 0)
+        | (Objects.nonNull(profile.getProfileImageUrl()) ? HAS_PROFILE_IMAGE_URL : 0)
+        | (Objects.nonNull(profile.getDisplayName()) ? HAS_DISPLAY_NAME : 0)
+        | (Objects.nonNull(profile.getUsername()) ? HAS_USERNAME : 0)
+        | (Objects.nonNull(profile.getBio()) ? HAS_BIO : 0);
+    writer.writeByte(present);
+    writer.writeVarint(profile.getId());
+    writer.writeVarint(profile.getVersion());
+    if ((present & HAS_USER_ID) != 0) {
+      writer.writeString(profile.getUserId());
+    }
+    if ((present & HAS_PROFILE_IMAGE_URL) != 0) {
+      writer.writeString(profile.getProfileImageUrl());
+    }
+    if ((present & HAS_DISPLAY_NAME) != 0) {
+      writer.writeString(profile.getDisplayName());
+    }
+    if ((present & HAS_USERNAME) != 0) {
+      writer.writeString(profile.getUsername());
+    }
+    if ((present & HAS_BIO) != 0) {
+      writer.writeString(profile.getBio());
+    }
+  }
+
+  @Override
+  public Profile read(BinaryReader reader) {
+    int schemaVersion = reader.readByte();
+    if (schemaVersion != SCHEMA_VERSION) {
+      throw new IllegalArgumentException("unknown profile schema version " + schemaVersion);
+    }
+    int present = reader.readByte();
+    Profile profile = new Profile();
+    profile.setId((int) reader.readVarint());
+    profile.setVersion(reader.readVarint());
+    if ((present & HAS_USER_ID) != 0) {
+      profile.setUserId(reader.readString());
+    }
+    if ((present & HAS_PROFILE_IMAGE_URL) != 0) {
+      profile.setProfileImageUrl(reader.readString());
+    }
+    if ((present & HAS_DISPLAY_NAME) != 0) {
+      profile.setDisplayName(reader.readString());
+    }
+    if ((present & HAS_USERNAME) != 0) {
+      profile.setUsername(reader.readString());
+    }
+    if ((present & HAS_BIO) != 0) {
+      profile.setBio(reader.readString());
+    }
+    return profile;
+  }
+}
@@ -0,0 +1,86 @@
+package com.engineerpro.example.redis.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Lets at most {@code maxConnections} threads hold a connection. With virtual
+ * threads thousands of requests can reach the pool at once; they wait here in
+ * FIFO order, parked cheaply, instead of all spinning through the pool's
+ * handoff, and no more threads than the pool size are ever inside the JDBC
+ * driver, whose synchronized socket I/O pins the carrier thread.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+  private final Semaphore permits;
+  private final long timeoutMillis;
+
+  public BoundedDataSource(DataSource target, int maxConnections, long timeoutMillis) {
+    super(target);
+    this.permits = new Semaphore(maxConnections, true);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return releaseOnClose(super.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return releaseOnClose(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException("no database connection available after " + timeoutMillis + "ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("interrupted while waiting for a database connection", e);
+    }
+  }
+
+  private Connection releaseOnClose(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+            try {
+              return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            } finally {
+              permits.release();
+            }
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+}
@@ -10,6 +10,7 @@ import com.engineerpro.example.redis.event.PushFeedConsumer;
 @Configuration
 public class MessageQueueConfig {
   public static final String AFTER_CREATE_POST_QUEUE = "after-create-post-queue";
+  public static final String AFTER_IMPORT_POSTS_QUEUE = "after-import-posts-queue";
 
   @Bean
   Queue afterCreatePostQueue() {
@@ -17,6 +18,11 @@ public class MessageQueueConfig {
 
   }
 
+  @Bean
+  Queue afterImportPostsQueue() {
+    return QueueBuilder.durable(AFTER_IMPORT_POSTS_QUEUE).build();
+  }
+
   @Bean
   PushFeedConsumer initConsumer() {
     return new PushFeedConsumer();
@@ -7,6 +7,8 @@ import io.minio.MinioClient;
 
 @Configuration
 public class MinioConfig {
+  public static final String BUCKET = "spring-boot";
+
   @Bean
   public MinioClient minioClient() {
     return MinioClient.builder()
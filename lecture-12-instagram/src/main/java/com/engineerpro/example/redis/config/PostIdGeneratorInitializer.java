@@ -0,0 +1,37 @@
+package com.engineerpro.example.redis.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.model.Post;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the post id generator past the ids already in the table, which
+ * matters for databases whose posts were created with AUTO_INCREMENT ids. It
+ * only ever moves the generator forward.
+ */
+@Slf4j
+@Component
+public class PostIdGeneratorInitializer {
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // the schema, including the generator table, exists once the entity
+  // manager factory is up
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @PostConstruct
+  void init() {
+    jdbcTemplate.update("insert into " + Post.ID_GENERATOR_TABLE + " (sequence_name, next_val)"
+        + " select ?, coalesce(max(id), 0) + ? + 1 from post"
+        + " on duplicate key update next_val = greatest(next_val, values(next_val))",
+        Post.ID_GENERATOR_NAME, Post.ID_ALLOCATION_SIZE);
+    log.info("post id generator initialized");
+  }
+}
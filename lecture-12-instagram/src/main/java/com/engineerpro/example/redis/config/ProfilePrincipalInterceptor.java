@@ -0,0 +1,42 @@
+package com.engineerpro.example.redis.config;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import com.engineerpro.example.redis.dto.ProfilePrincipal;
+import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.service.profile.ProfileService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class ProfilePrincipalInterceptor implements ChannelInterceptor {
+  @Autowired
+  private ProfileService profileService;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    if (Objects.isNull(accessor) || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+      return message;
+    }
+    if (accessor.getUser() instanceof Authentication authentication
+        && authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+      Profile profile = profileService.getUserProfile(userPrincipal);
+      accessor.setUser(new ProfilePrincipal(profile.getId()));
+      log.info("websocket connect profileId={}", profile.getId());
+    }
+    return message;
+  }
+}
@@ -1,16 +1,85 @@
 package com.engineerpro.example.redis.config;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericToStringSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.engineerpro.example.redis.codec.BinaryCodecRedisSerializer;
+import com.engineerpro.example.redis.codec.ProfileCodec;
+import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.repository.FeedShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Configuration
 public class RedisConfig {
+    @Value("${feed.redis.shards:}")
+    private String[] feedShards;
+
+    @Value("${spring.data.redis.database:0}")
+    private int database;
+
     @Bean
     public RedisTemplate<String, Long> redisTemplate(RedisConnectionFactory connectionFactory) {
+        return longValueTemplate(connectionFactory);
+    }
+
+    /**
+     * Profile cache entries are stored in the compact {@link ProfileCodec}
+     * format rather than JSON.
+     */
+    @Bean
+    public RedisTemplate<String, Profile> profileRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Profile> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new BinaryCodecRedisSerializer<>(new ProfileCodec()));
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * Feed, following and unseen-counter data is routed per profile. With no
+     * {@code feed.redis.shards} configured everything goes to the default
+     * connection, which is a single node or a Redis Cluster depending on
+     * {@code spring.data.redis}. Otherwise each listed {@code host:port} becomes
+     * a standalone shard on a consistent hash ring, whose connection factory
+     * the router closes on shutdown.
+     */
+    @Bean
+    public FeedShardRouter feedShardRouter(RedisTemplate<String, Long> redisTemplate) {
+        List<String> nodes = Arrays.stream(feedShards).map(String::trim).filter(node -> !node.isEmpty()).toList();
+        if (nodes.isEmpty()) {
+            return new FeedShardRouter(List.of("default"), List.of(redisTemplate));
+        }
+        List<RedisTemplate<String, Long>> templates = new ArrayList<>();
+        List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+        for (String node : nodes) {
+            String[] hostAndPort = node.split(":");
+            RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(hostAndPort[0],
+                    Integer.parseInt(hostAndPort[1]));
+            configuration.setDatabase(database);
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+            connectionFactory.afterPropertiesSet();
+            connectionFactories.add(connectionFactory);
+            templates.add(longValueTemplate(connectionFactory));
+        }
+        log.info("feed redis shards={}", nodes);
+        return new FeedShardRouter(nodes, templates, connectionFactories);
+    }
+
+    private static RedisTemplate<String, Long> longValueTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Long> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -20,6 +89,7 @@ public class RedisConfig {
         // Set value serializer to Long
         template.setValueSerializer(new GenericToStringSerializer<>(Long.class));
 
+        template.afterPropertiesSet();
         return template;
     }
 }
@@ -0,0 +1,70 @@
+package com.engineerpro.example.redis.config;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in mode ({@code app.virtual-threads.enabled=true}, Java 21) that runs
+ * request handling, {@code @Async} tasks and RabbitMQ listeners on virtual
+ * threads, so a slow upload parks a virtual thread instead of holding one of
+ * Tomcat's 200 workers. Database access stays bounded by the pool size through
+ * {@link BoundedDataSource}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    log.info("tomcat requests run on virtual threads");
+    return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+      AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new TaskExecutorAdapter(
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-", 0).factory()));
+  }
+
+  @Bean
+  public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+      SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setTaskExecutor(new SimpleAsyncTaskExecutor(Thread.ofVirtual().name("rabbit-", 0).factory()));
+    return factory;
+  }
+
+  @Bean
+  public static BeanPostProcessor boundedDataSourcePostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof HikariDataSource hikari) {
+          log.info("database access bounded to {} concurrent connections", hikari.getMaximumPoolSize());
+          return new BoundedDataSource(hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -1,7 +1,9 @@
 package com.engineerpro.example.redis.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -22,14 +24,22 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 	@Value("${spring.rabbitmq.stomp.relay.passcode}")
 	private String relayPasscode;
 
+	@Autowired
+	private ProfilePrincipalInterceptor profilePrincipalInterceptor;
+
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
 		// config.enableSimpleBroker("/topic");
-		config.enableStompBrokerRelay("/topic")
+		// per-user notices go to /user/topic/... destinations; RabbitMQ keeps a
+		// durable queue for every /queue/... destination, so a per-session
+		// /queue/<name>-user<session> would outlive its session
+		config.enableStompBrokerRelay("/topic", "/queue")
 				.setRelayHost(relayHost)
 				.setRelayPort(relayPort)
 				.setClientLogin(relayLogin)
-				.setClientPasscode(relayPasscode);
+				.setClientPasscode(relayPasscode)
+				.setUserDestinationBroadcast("/topic/unresolved-user")
+				.setUserRegistryBroadcast("/topic/registry-broadcast");
 		config.setApplicationDestinationPrefixes("/app");
 	}
 
@@ -38,4 +48,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 		registry.addEndpoint("/gs-guide-websocket");
 	}
 
+	@Override
+	public void configureClientInboundChannel(ChannelRegistration registration) {
+		registration.interceptors(profilePrincipalInterceptor);
+	}
+
 }
@@ -0,0 +1,135 @@
+package com.engineerpro.example.redis.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.service.image.ImageService;
+import com.engineerpro.example.redis.utils.ETags;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves images from the local disk cache. Object names are random and never
+ * rewritten, so responses are cacheable forever. When the connector supports
+ * it, the body is handed to Tomcat as a sendfile request and goes from the
+ * page cache to the socket without being copied through the JVM.
+ */
+@RestController
+@RequestMapping(path = "/images")
+public class ImageController {
+  private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+  private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+      .getHeaderValue();
+
+  @Autowired
+  ImageService imageService;
+
+  @GetMapping("/{name}")
+  public void getImage(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    String etag = "\"" + name + "\"";
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+    if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+      response.setStatus(HttpStatus.NOT_MODIFIED.value());
+      return;
+    }
+
+    Path path = imageService.getImage(name);
+    FileChannel opened;
+    try {
+      opened = FileChannel.open(path);
+    } catch (NoSuchFileException e) {
+      // evicted or removed between the lookup and the open
+      path = imageService.reloadImage(name);
+      opened = FileChannel.open(path);
+    }
+    try (FileChannel file = opened) {
+      long size = file.size();
+      response.setContentType(MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM)
+          .toString());
+      response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+      long start = 0;
+      long end = size - 1;
+      HttpRange range = singleRange(request, etag);
+      if (Objects.nonNull(range)) {
+        start = range.getRangeStart(size);
+        if (start >= size) {
+          response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+          response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+          return;
+        }
+        end = range.getRangeEnd(size);
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+      }
+      long length = end - start + 1;
+      response.setContentLengthLong(length);
+      if (length == 0) {
+        return;
+      }
+
+      // Tomcat reopens the file by name once this method returns; the entry
+      // was just moved to the young end of the LRU order, so it is only
+      // evicted in that window if the whole cache turns over first
+      if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+        request.setAttribute(SENDFILE_FILENAME_ATTR, path.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, end + 1);
+        return;
+      }
+      // the open channel keeps the file readable even if it is evicted now
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = start;
+      while (position <= end) {
+        position += file.transferTo(position, end + 1 - position, out);
+      }
+    }
+  }
+
+  /**
+   * Returns the requested range when there is exactly one valid range and
+   * {@code If-Range}, if sent, still matches; otherwise the whole image is
+   * served, as RFC 9110 allows.
+   */
+  private static HttpRange singleRange(HttpServletRequest request, String etag) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (Objects.isNull(rangeHeader)) {
+      return null;
+    }
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (Objects.nonNull(ifRange) && !ifRange.equals(etag)) {
+      return null;
+    }
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -1,21 +1,30 @@
 package com.engineerpro.example.redis.controller.feed;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.GetFeedDeltaResponse;
 import com.engineerpro.example.redis.dto.feed.GetFeedResponse;
 import com.engineerpro.example.redis.service.feed.FeedService;
+import com.engineerpro.example.redis.utils.ETags;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @Slf4j
+@Validated
 @RequestMapping(path = "/dynamic-feeds")
 public class DynamicFeedController {
   private FeedService feedService;
@@ -26,10 +35,28 @@ public class DynamicFeedController {
 
   @GetMapping()
   public ResponseEntity<GetFeedResponse> getFeed(@RequestParam("page") int page,
-      @RequestParam("limit") int limit, Authentication authentication) {
+      @RequestParam("limit") int limit, Authentication authentication,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     log.info("page={}, limit={}", page, limit);
     UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    String etag = feedService.getFeedEtag(userPrincipal, limit, page);
+    if (ETags.matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
     GetFeedResponse response = feedService.getFeed(userPrincipal, limit, page);
+    etag = ETags.feed(response.getPosts(), response.getTotalPage());
+    if (ETags.matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).body(response);
+  }
+
+  @GetMapping("/since")
+  public ResponseEntity<GetFeedDeltaResponse> getFeedSince(@RequestParam("postId") @Min(0) int postId,
+      @RequestParam("limit") @Min(1) @Max(100) int limit, Authentication authentication) {
+    log.info("postId={}, limit={}", postId, limit);
+    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    GetFeedDeltaResponse response = feedService.getFeedSince(userPrincipal, postId, limit);
     return ResponseEntity.ok().body(response);
   }
 }
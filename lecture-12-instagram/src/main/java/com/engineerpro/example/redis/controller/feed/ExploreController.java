@@ -0,0 +1,41 @@
+package com.engineerpro.example.redis.controller.feed;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.feed.GetExploreResponse;
+import com.engineerpro.example.redis.service.feed.PostService;
+import com.engineerpro.example.redis.service.trending.TrendingService;
+import com.engineerpro.example.redis.service.trending.TrendingWindow;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@Slf4j
+@Validated
+@RequestMapping(path = "/explore")
+public class ExploreController {
+  @Autowired
+  private TrendingService trendingService;
+
+  @Autowired
+  private PostService postService;
+
+  @GetMapping()
+  public ResponseEntity<GetExploreResponse> getExplore(
+      @RequestParam(name = "window", defaultValue = "HOUR") TrendingWindow window,
+      @RequestParam("limit") @Min(1) @Max(50) int limit) {
+    log.info("window={}, limit={}", window, limit);
+    List<Integer> postIds = trendingService.getTrendingPostIds(window, limit);
+    return ResponseEntity.ok().body(GetExploreResponse.builder().posts(postService.getPosts(postIds)).build());
+  }
+}
@@ -0,0 +1,49 @@
+package com.engineerpro.example.redis.controller.feed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.FeedRebuildProgress;
+import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.service.feed.FeedRebuildService;
+import com.engineerpro.example.redis.service.profile.ProfileService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@Slf4j
+@RequestMapping(path = "/feed-rebuild")
+public class FeedRebuildController {
+  @Autowired
+  private FeedRebuildService feedRebuildService;
+
+  @Autowired
+  private ProfileService profileService;
+
+  @PostMapping("/me")
+  public ResponseEntity<Integer> rebuildMyFeed(Authentication authentication) {
+    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    Profile profile = profileService.getUserProfile(userPrincipal);
+    return ResponseEntity.ok().body(feedRebuildService.rebuildFeed(profile.getId()));
+  }
+
+  @PostMapping()
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<FeedRebuildProgress> startBulkRebuild() {
+    log.info("start bulk feed rebuild");
+    return ResponseEntity.ok().body(feedRebuildService.startBulkRebuild());
+  }
+
+  @GetMapping()
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<FeedRebuildProgress> getProgress() {
+    return ResponseEntity.ok().body(feedRebuildService.getProgress());
+  }
+}
@@ -1,8 +1,13 @@
 package com.engineerpro.example.redis.controller.feed;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -10,6 +15,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,9 +25,14 @@ import com.engineerpro.example.redis.dto.feed.CreatePostResponse;
 import com.engineerpro.example.redis.dto.feed.DeletePostResponse;
 import com.engineerpro.example.redis.dto.feed.GetPostResponse;
 import com.engineerpro.example.redis.dto.feed.GetUserPostResponse;
+import com.engineerpro.example.redis.dto.feed.ImportPostsResponse;
 import com.engineerpro.example.redis.model.Post;
+import com.engineerpro.example.redis.service.VersionStampService;
+import com.engineerpro.example.redis.service.feed.PostImportService;
 import com.engineerpro.example.redis.service.feed.PostService;
+import com.engineerpro.example.redis.utils.ETags;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,6 +43,12 @@ public class PostController {
   @Autowired
   private PostService postService;
 
+  @Autowired
+  private VersionStampService versionStampService;
+
+  @Autowired
+  private PostImportService postImportService;
+
   @PostMapping()
   public ResponseEntity<CreatePostResponse> createPost(
       @Valid @RequestBody CreatePostRequest request, Authentication authentication) {
@@ -40,10 +57,30 @@ public class PostController {
     return ResponseEntity.ok().body(CreatePostResponse.builder().post(post).build());
   }
 
+  /**
+   * Body is newline-delimited JSON, one {@code ImportPostRequest} per line,
+   * read as a stream so imports of any size run in constant memory.
+   */
+  @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<ImportPostsResponse> importPosts(HttpServletRequest request, Authentication authentication)
+      throws IOException {
+    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    return ResponseEntity.ok().body(postImportService.importPosts(userPrincipal, request.getReader()));
+  }
+
   @GetMapping("/{id}")
-  public ResponseEntity<GetPostResponse> getPost(@PathVariable int id) {
+  public ResponseEntity<GetPostResponse> getPost(@PathVariable int id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    Long state = versionStampService.getPostState(id);
+    if (Objects.nonNull(state) && ETags.matches(ifNoneMatch, ETags.post(id, state))) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.post(id, state)).build();
+    }
     Post post = postService.getPost(id);
-    return ResponseEntity.ok().body(GetPostResponse.builder().post(post).build());
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.post(post));
+    if (Objects.nonNull(post.getLastModifiedAt())) {
+      response.lastModified(post.getLastModifiedAt().getTime());
+    }
+    return response.body(GetPostResponse.builder().post(post).build());
   }
 
   @DeleteMapping("/{id}")
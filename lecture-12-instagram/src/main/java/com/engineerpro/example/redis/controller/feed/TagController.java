@@ -0,0 +1,34 @@
+package com.engineerpro.example.redis.controller.feed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.engineerpro.example.redis.dto.feed.GetTagPostsResponse;
+import com.engineerpro.example.redis.service.feed.TagService;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@Slf4j
+@Validated
+@RequestMapping(path = "/tags")
+public class TagController {
+  @Autowired
+  private TagService tagService;
+
+  @GetMapping("/{tag}/posts")
+  public ResponseEntity<GetTagPostsResponse> getTagPosts(@PathVariable String tag,
+      @RequestParam(name = "before", required = false) @Min(1) Integer before,
+      @RequestParam("limit") @Min(1) @Max(100) int limit) {
+    log.info("tag={}, before={}, limit={}", tag, before, limit);
+    return ResponseEntity.ok().body(tagService.getTagPosts(tag, before, limit));
+  }
+}
@@ -1,34 +1,56 @@
 package com.engineerpro.example.redis.controller.profile;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.engineerpro.example.redis.dto.UserPrincipal;
 import com.engineerpro.example.redis.dto.profile.GetProfileResponse;
+import com.engineerpro.example.redis.dto.profile.GetSuggestionsResponse;
 import com.engineerpro.example.redis.dto.profile.UpdateProfileImageRequest;
 import com.engineerpro.example.redis.dto.profile.UpdateProfileImageResponse;
 import com.engineerpro.example.redis.dto.profile.UpdateProfileRequest;
 import com.engineerpro.example.redis.dto.profile.UpdateProfileResponse;
 import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.service.VersionStampService;
 import com.engineerpro.example.redis.service.profile.ProfileService;
+import com.engineerpro.example.redis.service.profile.SuggestionService;
+import com.engineerpro.example.redis.utils.ETags;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @RestController
+@Validated
 @RequestMapping(path = "/profiles")
 public class ProfileController {
   @Autowired
   ProfileService profileService;
 
+  @Autowired
+  SuggestionService suggestionService;
+
+  @Autowired
+  VersionStampService versionStampService;
+
   @PostMapping("/profile-image")
   public ResponseEntity<UpdateProfileImageResponse> updateProfileImage(
       @Valid @RequestBody UpdateProfileImageRequest request, Authentication authentication) {
@@ -46,15 +68,43 @@ public class ProfileController {
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<GetProfileResponse> getProfile(@PathVariable int id) {
+  public ResponseEntity<GetProfileResponse> getProfile(@PathVariable int id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    Long version = versionStampService.getProfileVersion(id);
+    if (Objects.nonNull(version) && ETags.matches(ifNoneMatch, ETags.profile(id, version))) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.profile(id, version)).build();
+    }
     Profile profile = profileService.getUserProfile(id);
-    return ResponseEntity.ok().body(GetProfileResponse.builder().profile(profile).build());
+    return ResponseEntity.ok().eTag(ETags.profile(id, profile.getVersion()))
+        .body(GetProfileResponse.builder().profile(profile).build());
   }
 
   @GetMapping("/me")
-  public ResponseEntity<GetProfileResponse> getProfile(Authentication authentication) {
+  public ResponseEntity<GetProfileResponse> getProfile(Authentication authentication,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
     Profile profile = profileService.getUserProfile(userPrincipal);
-    return ResponseEntity.ok().body(GetProfileResponse.builder().profile(profile).build());
+    String etag = ETags.profile(profile.getId(), profile.getVersion());
+    if (ETags.matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+    return ResponseEntity.ok().eTag(etag).body(GetProfileResponse.builder().profile(profile).build());
+  }
+
+  @GetMapping("/suggestions")
+  public ResponseEntity<GetSuggestionsResponse> getSuggestions(
+      @RequestParam(name = "limit", defaultValue = "20") @Min(1) @Max(100) int limit, Authentication authentication) {
+    UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+    Profile profile = profileService.getUserProfile(userPrincipal);
+    return ResponseEntity.ok()
+        .body(GetSuggestionsResponse.builder().profiles(suggestionService.getSuggestions(profile.getId(), limit)).build());
+  }
+
+  @PostMapping("/suggestions/recompute")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<Void> recomputeSuggestions() {
+    log.info("start suggestion recompute");
+    CompletableFuture.runAsync(suggestionService::recomputeAll);
+    return ResponseEntity.accepted().build();
   }
 }
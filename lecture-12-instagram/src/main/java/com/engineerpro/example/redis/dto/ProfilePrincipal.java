@@ -0,0 +1,21 @@
+package com.engineerpro.example.redis.dto;
+
+import java.security.Principal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * WebSocket session user, named by profile id so that feed notices can be
+ * addressed with {@code convertAndSendToUser} without loading the profile.
+ */
+@Data
+@AllArgsConstructor
+public class ProfilePrincipal implements Principal {
+  private int profileId;
+
+  @Override
+  public String getName() {
+    return String.valueOf(profileId);
+  }
+}
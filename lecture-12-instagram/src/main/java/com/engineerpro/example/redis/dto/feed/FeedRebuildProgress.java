@@ -0,0 +1,22 @@
+package com.engineerpro.example.redis.dto.feed;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class FeedRebuildProgress {
+  private boolean running;
+  private long scannedFollowings;
+  private long rebuiltUsers;
+  private long failedUsers;
+  private long writtenPosts;
+  private Date startedAt;
+  private Date finishedAt;
+}
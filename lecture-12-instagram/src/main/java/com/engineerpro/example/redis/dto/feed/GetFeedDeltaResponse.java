@@ -0,0 +1,22 @@
+package com.engineerpro.example.redis.dto.feed;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.Post;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GetFeedDeltaResponse {
+  private List<Post> posts;
+  // cursor for the next delta request
+  private int newestPostId;
+  // more than limit posts arrived since the cursor, client should reload page 1
+  private boolean gap;
+}
@@ -0,0 +1,22 @@
+package com.engineerpro.example.redis.dto.feed;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.Post;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class GetTagPostsResponse {
+  private String tag;
+  private long totalPost;
+  private List<Post> posts;
+  // pass as "before" to get the next page, null on the last page
+  private Integer nextCursor;
+}
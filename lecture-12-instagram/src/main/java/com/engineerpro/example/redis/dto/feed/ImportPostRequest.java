@@ -0,0 +1,18 @@
+package com.engineerpro.example.redis.dto.feed;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ImportPostRequest {
+  private String imageUrl;
+  private String caption;
+  private Date createdAt;
+}
@@ -0,0 +1,15 @@
+package com.engineerpro.example.redis.dto.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class NewPostsNotice {
+  private long newPostCount;
+  private int latestPostId;
+}
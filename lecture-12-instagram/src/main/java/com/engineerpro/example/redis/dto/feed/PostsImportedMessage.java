@@ -0,0 +1,18 @@
+package com.engineerpro.example.redis.dto.feed;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class PostsImportedMessage {
+  private int authorId;
+  // oldest first by creation time
+  private List<Integer> postIds;
+}
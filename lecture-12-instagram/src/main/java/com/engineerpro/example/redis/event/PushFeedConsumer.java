@@ -5,13 +5,18 @@ import java.util.List;
 import org.springframework.amqp.rabbit.annotation.RabbitHandler;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
 
 import com.engineerpro.example.redis.config.MessageQueueConfig;
+import com.engineerpro.example.redis.dto.feed.NewPostsNotice;
+import com.engineerpro.example.redis.dto.feed.PostsImportedMessage;
 import com.engineerpro.example.redis.model.Post;
 import com.engineerpro.example.redis.model.UserFollowing;
 import com.engineerpro.example.redis.repository.FeedRepository;
 import com.engineerpro.example.redis.repository.FollowerRepository;
 import com.engineerpro.example.redis.repository.NotificationRepository;
+import com.engineerpro.example.redis.service.feed.FeedArchiveService;
 import com.engineerpro.example.redis.service.feed.PostService;
 import com.engineerpro.example.redis.service.profile.FollowerService;
 import com.engineerpro.example.redis.service.profile.ProfileService;
@@ -22,8 +27,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@RabbitListener(queues = MessageQueueConfig.AFTER_CREATE_POST_QUEUE)
+@RabbitListener(queues = { MessageQueueConfig.AFTER_CREATE_POST_QUEUE, MessageQueueConfig.AFTER_IMPORT_POSTS_QUEUE })
 public class PushFeedConsumer {
+    // a topic, not a queue: through the RabbitMQ relay every session gets its
+    // own /topic/feed-user<session> subscription queue, which is auto-deleted
+    // on disconnect; a /queue destination would leave a durable queue behind
+    public static final String FEED_NOTICE_DESTINATION = "/topic/feed";
 
     @Autowired
     ObjectMapper objectMapper;
@@ -43,6 +52,15 @@ public class PushFeedConsumer {
     @Autowired
     FeedRepository feedRepository;
 
+    @Autowired
+    FeedArchiveService feedArchiveService;
+
+    @Autowired
+    SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    SimpUserRegistry simpUserRegistry;
+
     @RabbitHandler
     public void receive(Integer postId) throws JsonMappingException, JsonProcessingException {
         log.info(" [x] Received '" + postId + "'");
@@ -51,9 +69,49 @@ public class PushFeedConsumer {
 
         List<UserFollowing> follwerList = followerRepository.findByFollowingUserId(post.getCreatedBy().getId());
 
+        log.info("fan out postId={} to {} followers", post.getId(), follwerList.size());
+        List<Integer> followerIds = follwerList.stream().map(UserFollowing::getFollowerUserId).toList();
+        feedRepository.addPostToFeeds(post.getId(), followerIds);
+        feedArchiveService.archiveOverflow(followerIds);
+
+        for (UserFollowing userFollowing : follwerList) {
+            notifyIfConnected(userFollowing.getFollowerUserId(), post.getId(), 1);
+        }
+    }
+
+    // a bulk import arrives as one message per author carrying all its post
+    // ids, so each follower's feed gets one push and one notice
+    @RabbitHandler
+    public void receive(String message) throws JsonMappingException, JsonProcessingException {
+        PostsImportedMessage imported = objectMapper.readValue(message, PostsImportedMessage.class);
+        List<Integer> postIds = imported.getPostIds();
+        if (postIds.isEmpty()) {
+            return;
+        }
+        List<UserFollowing> follwerList = followerRepository.findByFollowingUserId(imported.getAuthorId());
+
+        log.info("fan out {} imported posts of authorId={} to {} followers", postIds.size(), imported.getAuthorId(),
+                follwerList.size());
+        List<Integer> followerIds = follwerList.stream().map(UserFollowing::getFollowerUserId).toList();
+        feedRepository.addPostsToFeeds(postIds, followerIds);
+        feedArchiveService.archiveOverflow(followerIds);
+
+        int latestPostId = postIds.get(postIds.size() - 1);
         for (UserFollowing userFollowing : follwerList) {
-            log.info("userFollowing={}", userFollowing);
-            feedRepository.addPostToFeed(post.getId(), userFollowing.getFollowerUserId());
+            notifyIfConnected(userFollowing.getFollowerUserId(), latestPostId, postIds.size());
+        }
+    }
+
+    // only followers holding a websocket session (on any node, through the
+    // registry broadcast) get a notice; everyone else sees the posts on the
+    // next feed read
+    private void notifyIfConnected(int profileId, int postId, int postCount) {
+        String user = String.valueOf(profileId);
+        if (simpUserRegistry.getUser(user) == null) {
+            return;
         }
+        Long newPostCount = feedRepository.incrementUnseen(profileId, postCount);
+        messagingTemplate.convertAndSendToUser(user, FEED_NOTICE_DESTINATION,
+                NewPostsNotice.builder().newPostCount(newPostCount).latestPostId(postId).build());
     }
 }
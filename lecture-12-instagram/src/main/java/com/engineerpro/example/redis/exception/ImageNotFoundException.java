@@ -0,0 +1,5 @@
+package com.engineerpro.example.redis.exception;
+
+public class ImageNotFoundException extends RuntimeException {
+
+}
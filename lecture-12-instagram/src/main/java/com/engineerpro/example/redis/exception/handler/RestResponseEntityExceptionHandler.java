@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.engineerpro.example.redis.exception.CommentNotFoundException;
+import com.engineerpro.example.redis.exception.ImageNotFoundException;
 import com.engineerpro.example.redis.exception.NoPermissionException;
 import com.engineerpro.example.redis.exception.PostNotFoundException;
 import com.engineerpro.example.redis.exception.UserNotFoundException;
@@ -20,12 +21,14 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
 			UserNotFoundException.class, HttpStatus.NOT_FOUND,
 			PostNotFoundException.class, HttpStatus.NOT_FOUND,
 			CommentNotFoundException.class, HttpStatus.NOT_FOUND,
+			ImageNotFoundException.class, HttpStatus.NOT_FOUND,
 			NoPermissionException.class, HttpStatus.FORBIDDEN);
 
 	private static final Map<Class<? extends RuntimeException>, String> EXCEPTION_TO_ERROR_CODE = Map.of(
 			UserNotFoundException.class, "USER_NOT_FOUND",
 			PostNotFoundException.class, "POST_NOT_FOUND",
 			CommentNotFoundException.class, "COMMENT_NOT_FOUND",
+			ImageNotFoundException.class, "IMAGE_NOT_FOUND",
 			NoPermissionException.class, "NO_PERMISSION");
 
 	@ExceptionHandler()
@@ -0,0 +1,42 @@
+package com.engineerpro.example.redis.model;
+
+import java.util.Date;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A run of feed entries moved out of redis, packed with
+ * {@link com.engineerpro.example.redis.codec.PostIdListCodec}. Blocks of one
+ * profile are archived from the tail of the hot list, so a higher id always
+ * holds newer entries.
+ */
+@Entity
+@Table(name = "feed_archive_block", indexes = { @Index(columnList = "profileId, id") })
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedArchiveBlock {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private long id;
+
+  private int profileId;
+  private int postCount;
+
+  @Column(nullable = false, columnDefinition = "blob")
+  private byte[] postIds;
+
+  private Date createdAt;
+}
@@ -12,25 +12,36 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "post")
+@Table(name = "post", indexes = @Index(name = "idx_post_created_by_created_at", columnList = "created_by_id, created_at, id"))
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Post {
+  public static final String ID_GENERATOR_TABLE = "id_generator";
+  public static final String ID_GENERATOR_NAME = "post";
+  public static final int ID_ALLOCATION_SIZE = 100;
+
+  // a pooled table generator hands out ids in blocks, which lets Hibernate
+  // batch inserts; IDENTITY needs a round trip per row to learn the id. Each
+  // node draws its own block, so ids are unique but not in creation order:
+  // feeds, cursors and the hashtag index order posts by (createdAt, id)
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "post_id")
+  @TableGenerator(name = "post_id", table = ID_GENERATOR_TABLE, pkColumnValue = ID_GENERATOR_NAME, allocationSize = ID_ALLOCATION_SIZE)
   @Column(name = "id")
   private int id;
 
@@ -43,6 +54,14 @@ public class Post {
   String caption;
   private Date createdAt;
 
+  // bumped by an atomic update on every change to the post, its likes or its
+  // comments, so entity saves never write these two columns
+  @Column(updatable = false, columnDefinition = "bigint not null default 0")
+  private long version;
+
+  @Column(updatable = false)
+  private Date lastModifiedAt;
+
   @OneToMany(mappedBy = "post")
   @JsonProperty("comments")
   private List<Comment> comments;
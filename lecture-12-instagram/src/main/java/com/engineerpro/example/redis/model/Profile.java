@@ -28,4 +28,7 @@ public class Profile {
   String displayName;
   String username;
   String bio;
+
+  @Column(updatable = false, columnDefinition = "bigint not null default 0")
+  private long version;
 }
@@ -0,0 +1,99 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class CountsRepository {
+    // a counter that is not cached must stay missing, otherwise INCRBY would
+    // start it from 0 and it would never be loaded from the database
+    private static final RedisScript<Long> INCREMENT_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return redis.call('incrby', KEYS[1], ARGV[1]) end return nil",
+            Long.class);
+
+    public enum Counter {
+        FOLLOWERS(FeedKeys::followerCount),
+        FOLLOWINGS(FeedKeys::followingCount),
+        POSTS(FeedKeys::postCount);
+
+        private final IntFunction<String> key;
+
+        Counter(IntFunction<String> key) {
+            this.key = key;
+        }
+
+        public String key(int profileId) {
+            return key.apply(profileId);
+        }
+    }
+
+    @Autowired
+    private FeedShardRouter feedShardRouter;
+
+    /**
+     * Returns the cached value of {@code counter} for each profile; profiles
+     * whose counter is not cached are left out.
+     */
+    public Map<Integer, Long> getCounts(Counter counter, Collection<Integer> profileIds) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Map.Entry<RedisTemplate<String, Long>, List<Integer>> group : feedShardRouter.groupByShard(profileIds)
+                .entrySet()) {
+            List<Integer> shardProfileIds = group.getValue();
+            List<Object> values = group.getKey().executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Long> ops = (RedisOperations<String, Long>) operations;
+                    for (Integer profileId : shardProfileIds) {
+                        ops.opsForValue().get(counter.key(profileId));
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < shardProfileIds.size(); i++) {
+                if (values.get(i) != null) {
+                    counts.put(shardProfileIds.get(i), (Long) values.get(i));
+                }
+            }
+        }
+        return counts;
+    }
+
+    public void setCounts(Counter counter, Map<Integer, Long> counts, long ttlHours) {
+        feedShardRouter.pipelinedByShard(counts.keySet(), (ops, shardProfileIds) -> {
+            for (Integer profileId : shardProfileIds) {
+                ops.opsForValue().set(counter.key(profileId), counts.get(profileId), ttlHours, TimeUnit.HOURS);
+            }
+        });
+    }
+
+    /**
+     * Overwrites only the counters that are currently cached, so reconciling
+     * does not pull every profile into redis.
+     */
+    public void refreshCounts(Counter counter, Map<Integer, Long> counts, long ttlHours) {
+        feedShardRouter.pipelinedByShard(counts.keySet(), (ops, shardProfileIds) -> {
+            for (Integer profileId : shardProfileIds) {
+                ops.opsForValue().setIfPresent(counter.key(profileId), counts.get(profileId), ttlHours,
+                        TimeUnit.HOURS);
+            }
+        });
+    }
+
+    public void incrementIfPresent(Counter counter, int profileId, long delta) {
+        feedShardRouter.forProfile(profileId).execute(INCREMENT_IF_PRESENT, List.of(counter.key(profileId)), delta);
+    }
+}
@@ -0,0 +1,28 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.engineerpro.example.redis.model.FeedArchiveBlock;
+
+@Repository
+public interface FeedArchiveBlockRepository extends JpaRepository<FeedArchiveBlock, Long> {
+  // block ids and sizes, newest first, without the packed payload
+  @Query(value = "select id, post_count from feed_archive_block where profile_id = :profileId order by id desc", nativeQuery = true)
+  List<Object[]> findBlockSizesByProfileId(@Param(value = "profileId") int profileId);
+
+  @Query(value = "select coalesce(sum(post_count), 0) from feed_archive_block where profile_id = :profileId", nativeQuery = true)
+  long sumPostCountByProfileId(@Param(value = "profileId") int profileId);
+
+  @Modifying
+  @Transactional
+  @Query(value = "delete from feed_archive_block where profile_id in :ids", nativeQuery = true)
+  int deleteByProfileIdIn(@Param("ids") Collection<Integer> profileIds);
+}
@@ -0,0 +1,59 @@
+package com.engineerpro.example.redis.repository;
+
+/**
+ * Redis keys for per-profile data. The profile id is wrapped in a hash tag so
+ * that on Redis Cluster all keys of one profile land in the same slot and can
+ * be used together in a pipeline or transaction.
+ */
+public final class FeedKeys {
+    private FeedKeys() {
+    }
+
+    public static String feed(int profileId) {
+        return "feed:{" + profileId + "}";
+    }
+
+    public static String feedPushes(int profileId) {
+        return "feed-pushes:{" + profileId + "}";
+    }
+
+    public static String feedUnseen(int profileId) {
+        return "feed-unseen:{" + profileId + "}";
+    }
+
+    public static String feedEmpty(int profileId) {
+        return "feed-empty:{" + profileId + "}";
+    }
+
+    public static String feedArchivedCount(int profileId) {
+        return "feed-archived-count:{" + profileId + "}";
+    }
+
+    public static String feedArchiveLock(int profileId) {
+        return "feed-archive-lock:{" + profileId + "}";
+    }
+
+    public static String following(int profileId) {
+        return "following:{" + profileId + "}";
+    }
+
+    public static String followingVersion(int profileId) {
+        return "following-version:{" + profileId + "}";
+    }
+
+    public static String suggestions(int profileId) {
+        return "suggestions:{" + profileId + "}";
+    }
+
+    public static String followerCount(int profileId) {
+        return "follower-count:{" + profileId + "}";
+    }
+
+    public static String followingCount(int profileId) {
+        return "following-count:{" + profileId + "}";
+    }
+
+    public static String postCount(int profileId) {
+        return "post-count:{" + profileId + "}";
+    }
+}
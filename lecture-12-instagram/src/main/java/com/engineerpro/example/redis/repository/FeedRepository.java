@@ -1,35 +1,253 @@
 package com.engineerpro.example.redis.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class FeedRepository {
-    private static final String FEED_KEY_PREFIX = "feed:";
+    // only the holder of the token may release the lock; one that outlived its
+    // timeout may already belong to someone else
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
+    // entries pushed after the snapshot's push count was read are kept at the
+    // head, unless the snapshot already has them; 1000 ids per rpush/lpush,
+    // Lua cannot unpack a whole feed in one call
+    private static final RedisScript<Long> REPLACE = new DefaultRedisScript<>(
+            "local pushed = tonumber(redis.call('get', KEYS[2]) or '0') - tonumber(ARGV[1]) "
+                    + "local kept = {} "
+                    + "if pushed > 0 then "
+                    + "local snapshot = {} "
+                    + "for i = 2, #ARGV do snapshot[ARGV[i]] = true end "
+                    + "local head = redis.call('lrange', KEYS[1], 0, pushed - 1) "
+                    + "for i = #head, 1, -1 do "
+                    + "if not snapshot[head[i]] then kept[#kept + 1] = head[i] end end end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "redis.call('set', KEYS[3], '0') "
+                    + "for i = 2, #ARGV, 1000 do "
+                    + "redis.call('rpush', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end "
+                    + "for i = 1, #kept, 1000 do "
+                    + "redis.call('lpush', KEYS[1], unpack(kept, i, math.min(i + 999, #kept))) end "
+                    + "return #kept",
+            Long.class);
 
     @Autowired
-    private RedisTemplate<String, Long> redisTemplate;
+    private FeedShardRouter feedShardRouter;
+
+    @Value("${feed.unseen.ttl-hours:24}")
+    private long unseenTtlHours;
 
     public Long getFeedSize(int profileId) {
-        String feedKey = FEED_KEY_PREFIX + profileId;
-        return redisTemplate.opsForList().size(feedKey);
+        return feedShardRouter.forProfile(profileId).opsForList().size(FeedKeys.feed(profileId));
     }
 
+    /**
+     * Every push also advances the feed's push count, which {@link #replaceFeeds}
+     * uses to tell entries pushed during a rebuild. The count goes first: a
+     * replace running between the two commands keeps one entry too many
+     * rather than losing the new one.
+     */
     public void addPostToFeed(int postId, int profileId) {
-        String feedKey = FEED_KEY_PREFIX + profileId;
-        redisTemplate.opsForList().leftPush(feedKey, Long.valueOf(postId));
-        // uncomment if need to limit the number of posts in the feed
-        // redisTemplate.opsForList().trim(feedKey, 0, 1000); // Keep only the latest
-        // 1000 posts
+        addPostToFeeds(postId, List.of(profileId));
+    }
+
+    /**
+     * Pushes {@code postIds}, given oldest first, so the newest ends up at the
+     * head of each feed; one LPUSH per feed.
+     */
+    public void addPostsToFeeds(List<Integer> postIds, Collection<Integer> profileIds) {
+        Long[] values = postIds.stream().map(Long::valueOf).toArray(Long[]::new);
+        feedShardRouter.pipelinedByShard(profileIds, (ops, shardProfileIds) -> {
+            for (Integer profileId : shardProfileIds) {
+                ops.opsForValue().increment(FeedKeys.feedPushes(profileId), values.length);
+                ops.opsForList().leftPushAll(FeedKeys.feed(profileId), values);
+            }
+        });
+    }
+
+    /**
+     * Fan-out of one post to many feeds: one pipeline per shard instead of one
+     * round trip per follower.
+     */
+    public void addPostToFeeds(int postId, Collection<Integer> profileIds) {
+        Long value = Long.valueOf(postId);
+        feedShardRouter.pipelinedByShard(profileIds, (ops, shardProfileIds) -> {
+            for (Integer profileId : shardProfileIds) {
+                ops.opsForValue().increment(FeedKeys.feedPushes(profileId));
+                ops.opsForList().leftPush(FeedKeys.feed(profileId), value);
+            }
+        });
     }
 
     public List<Long> getFeed(int profileId, int limit, int page) {
-        String feedKey = FEED_KEY_PREFIX + profileId;
         int start = (page - 1) * limit;
         int end = start + limit - 1;
-        return redisTemplate.opsForList().range(feedKey, start, end);
+        return feedShardRouter.forProfile(profileId).opsForList().range(FeedKeys.feed(profileId), start, end);
+    }
+
+    public Map<Integer, Long> getFeedSizes(Collection<Integer> profileIds) {
+        return readPerProfile(profileIds, (ops, profileId) -> ops.opsForList().size(FeedKeys.feed(profileId)));
+    }
+
+    /**
+     * Push counts to pass to {@link #replaceFeeds}, read before the feeds are
+     * loaded from the database. A feed never pushed to counts 0.
+     */
+    public Map<Integer, Long> getPushCounts(Collection<Integer> profileIds) {
+        Map<Integer, Long> counts = readPerProfile(profileIds,
+                (ops, profileId) -> ops.opsForValue().get(FeedKeys.feedPushes(profileId)));
+        counts.replaceAll((profileId, count) -> count == null ? 0L : count);
+        return counts;
+    }
+
+    // one pipelined read per shard, a single command per profile
+    private Map<Integer, Long> readPerProfile(Collection<Integer> profileIds,
+            BiConsumer<RedisOperations<String, Long>, Integer> read) {
+        Map<Integer, Long> values = new HashMap<>();
+        for (Map.Entry<RedisTemplate<String, Long>, List<Integer>> group : feedShardRouter.groupByShard(profileIds)
+                .entrySet()) {
+            List<Integer> shardProfileIds = group.getValue();
+            List<Object> shardValues = group.getKey().executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, Long> ops = (RedisOperations<String, Long>) operations;
+                    for (Integer profileId : shardProfileIds) {
+                        read.accept(ops, profileId);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < shardProfileIds.size(); i++) {
+                values.put(shardProfileIds.get(i), (Long) shardValues.get(i));
+            }
+        }
+        return values;
+    }
+
+    public List<Long> getRange(int profileId, long start, long end) {
+        return feedShardRouter.forProfile(profileId).opsForList().range(FeedKeys.feed(profileId), start, end);
+    }
+
+    /**
+     * Returns the oldest {@code count} entries, oldest last. Pushes only touch
+     * the head, so these stay put until {@link #trimTail} removes them.
+     */
+    public List<Long> getTail(int profileId, int count) {
+        return getRange(profileId, -count, -1);
+    }
+
+    public void trimTail(int profileId, int count) {
+        feedShardRouter.forProfile(profileId).opsForList().trim(FeedKeys.feed(profileId), 0, -count - 1);
+    }
+
+    /**
+     * Returns the lock token, or null when the lock is held by someone else.
+     */
+    public Long tryLockArchive(int profileId, long timeoutSeconds) {
+        Long token = ThreadLocalRandom.current().nextLong();
+        boolean locked = Boolean.TRUE.equals(feedShardRouter.forProfile(profileId).opsForValue()
+                .setIfAbsent(FeedKeys.feedArchiveLock(profileId), token, timeoutSeconds, TimeUnit.SECONDS));
+        return locked ? token : null;
+    }
+
+    public void unlockArchive(int profileId, long token) {
+        feedShardRouter.forProfile(profileId).execute(UNLOCK, List.of(FeedKeys.feedArchiveLock(profileId)), token);
+    }
+
+    public void markFeedEmpty(int profileId, long ttlSeconds) {
+        feedShardRouter.forProfile(profileId).opsForValue().set(FeedKeys.feedEmpty(profileId), 1L, ttlSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    public boolean isFeedMarkedEmpty(int profileId) {
+        return Boolean.TRUE.equals(feedShardRouter.forProfile(profileId).hasKey(FeedKeys.feedEmpty(profileId)));
+    }
+
+    public void clearFeedEmpty(int profileId) {
+        feedShardRouter.forProfile(profileId).delete(FeedKeys.feedEmpty(profileId));
+    }
+
+    public Long getArchivedCount(int profileId) {
+        return feedShardRouter.forProfile(profileId).opsForValue().get(FeedKeys.feedArchivedCount(profileId));
+    }
+
+    public void setArchivedCount(int profileId, long count) {
+        feedShardRouter.forProfile(profileId).opsForValue().set(FeedKeys.feedArchivedCount(profileId), count);
+    }
+
+    public void incrementArchivedCount(int profileId, long delta) {
+        feedShardRouter.forProfile(profileId).opsForValue().increment(FeedKeys.feedArchivedCount(profileId), delta);
+    }
+
+    public List<Long> getLatest(int profileId, int count) {
+        return feedShardRouter.forProfile(profileId).opsForList().range(FeedKeys.feed(profileId), 0, count - 1);
+    }
+
+    /**
+     * Replaces the feeds of several profiles, one pipelined round trip per
+     * shard. Each list must be ordered newest first, the same order
+     * {@link #addPostToFeed} produces. Entries pushed since
+     * {@code pushCounts} were read stay ahead of the new list, so fan-out
+     * racing with the rebuild is not lost. The archived count is reset as
+     * well, so the caller must drop the archived blocks of these profiles.
+     */
+    public void replaceFeeds(Map<Integer, List<Long>> feeds, Map<Integer, Long> pushCounts) {
+        feedShardRouter.pipelinedByShard(feeds.keySet(), (ops, shardProfileIds) -> {
+            for (Integer profileId : shardProfileIds) {
+                List<Long> feed = feeds.get(profileId);
+                Object[] args = new Object[feed.size() + 1];
+                args[0] = pushCounts.getOrDefault(profileId, 0L);
+                for (int i = 0; i < feed.size(); i++) {
+                    args[i + 1] = feed.get(i);
+                }
+                ops.execute(REPLACE, List.of(FeedKeys.feed(profileId), FeedKeys.feedPushes(profileId),
+                        FeedKeys.feedArchivedCount(profileId)), args);
+            }
+        });
+    }
+
+    public Long incrementUnseen(int profileId) {
+        return incrementUnseen(profileId, 1);
+    }
+
+    /**
+     * The counter only backs the "new posts" badge of a connected client, so it
+     * expires after {@code feed.unseen.ttl-hours} without new posts instead of
+     * living as long as the feed itself.
+     */
+    public Long incrementUnseen(int profileId, long delta) {
+        String unseenKey = FeedKeys.feedUnseen(profileId);
+        List<Object> values = feedShardRouter.forProfile(profileId).executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Long> ops = (RedisOperations<String, Long>) operations;
+                ops.opsForValue().increment(unseenKey, delta);
+                ops.expire(unseenKey, unseenTtlHours, TimeUnit.HOURS);
+                return null;
+            }
+        });
+        return (Long) values.get(0);
+    }
+
+    public void resetUnseen(int profileId) {
+        feedShardRouter.forProfile(profileId).delete(FeedKeys.feedUnseen(profileId));
     }
 }
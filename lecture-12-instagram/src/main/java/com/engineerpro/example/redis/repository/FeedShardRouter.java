@@ -0,0 +1,95 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+/**
+ * Consistent hash ring mapping a profile id to the redis node that stores its
+ * feed data. Adding a shard only moves about 1/n of the profiles. Connection
+ * factories created for the shards are owned by the router and closed with it.
+ */
+public class FeedShardRouter implements DisposableBean {
+    private static final int VIRTUAL_NODES = 160;
+
+    private final List<RedisTemplate<String, Long>> shards;
+    private final List<LettuceConnectionFactory> connectionFactories;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    public FeedShardRouter(List<String> names, List<RedisTemplate<String, Long>> shards) {
+        this(names, shards, List.of());
+    }
+
+    public FeedShardRouter(List<String> names, List<RedisTemplate<String, Long>> shards,
+            List<LettuceConnectionFactory> connectionFactories) {
+        this.shards = shards;
+        this.connectionFactories = connectionFactories;
+        for (int shard = 0; shard < names.size(); shard++) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(mix((names.get(shard) + "#" + i).hashCode()), shard);
+            }
+        }
+    }
+
+    public RedisTemplate<String, Long> forProfile(int profileId) {
+        if (shards.size() == 1) {
+            return shards.get(0);
+        }
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(mix(profileId));
+        return shards.get(entry != null ? entry.getValue() : ring.firstEntry().getValue());
+    }
+
+    public Map<RedisTemplate<String, Long>, List<Integer>> groupByShard(Collection<Integer> profileIds) {
+        Map<RedisTemplate<String, Long>, List<Integer>> groups = new LinkedHashMap<>();
+        for (Integer profileId : profileIds) {
+            groups.computeIfAbsent(forProfile(profileId), shard -> new ArrayList<>()).add(profileId);
+        }
+        return groups;
+    }
+
+    /**
+     * Runs {@code commands} once per shard inside a pipeline, with the profile
+     * ids that live on that shard.
+     */
+    public void pipelinedByShard(Collection<Integer> profileIds,
+            BiConsumer<RedisOperations<String, Long>, List<Integer>> commands) {
+        for (Map.Entry<RedisTemplate<String, Long>, List<Integer>> group : groupByShard(profileIds).entrySet()) {
+            group.getKey().executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    commands.accept((RedisOperations<String, Long>) operations, group.getValue());
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (LettuceConnectionFactory connectionFactory : connectionFactories) {
+            connectionFactory.destroy();
+        }
+    }
+
+    // 64-bit finalizer from MurmurHash3, spreads sequential ids over the ring
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -19,6 +19,9 @@ public interface FollowerRepository extends JpaRepository<UserFollowing, Integer
 
   List<UserFollowing> findByFollowerUserId(int followerUserId);
 
+  @Query(value = "select f.followingUserId from UserFollowing f where f.followerUserId = :followerUserId")
+  List<Integer> findFollowingUserIdByFollowerUserId(@Param(value = "followerUserId") int followerUserId);
+
   List<UserFollowing> findByFollowingUserId(int followingUserId);
 
   @Query(value = "select * from user_following where following_user_id = :followingUserId LIMIT :limit OFFSET :offset", nativeQuery = true)
@@ -28,6 +31,17 @@ public interface FollowerRepository extends JpaRepository<UserFollowing, Integer
 
   int countByFollowingUserId(int followingUserId);
 
+  @Query(value = "select * from user_following where (follower_user_id, following_user_id) > (:followerUserId, :followingUserId) order by follower_user_id, following_user_id LIMIT :limit", nativeQuery = true)
+  List<UserFollowing> findPageAfter(@Param(value = "followerUserId") int followerUserId,
+      @Param(value = "followingUserId") int followingUserId,
+      @Param(value = "limit") int limit);
+
+  @Query(value = "select following_user_id, count(*) from user_following where following_user_id in :ids group by following_user_id", nativeQuery = true)
+  List<Object[]> countFollowersGroupByFollowingUserId(@Param("ids") List<Integer> followingUserIdList);
+
+  @Query(value = "select follower_user_id, count(*) from user_following where follower_user_id in :ids group by follower_user_id", nativeQuery = true)
+  List<Object[]> countFollowingsGroupByFollowerUserId(@Param("ids") List<Integer> followerUserIdList);
+
   UserFollowing findByFollowerUserIdAndFollowingUserId(int followerUserId, int followingUserId);
 
   void deleteByFollowerUserIdAndFollowingUserId(int followerUserId, int followingUserId);
@@ -0,0 +1,97 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Cached set of the profiles a profile follows ({@code following:{id}}) and a
+ * counter bumped by every follow and unfollow ({@code following-version:{id}}).
+ * A set loaded from the database is only stored when the counter did not move
+ * since the load started, so a slow reload cannot undo a newer write-through.
+ */
+@Repository
+public class FollowingSetRepository {
+    // profile ids start at 1, so 0 marks a set that was fully loaded from the
+    // database and keeps an empty following list from disappearing in redis
+    public static final long LOADED_MARKER = 0L;
+    private static final long TTL_HOURS = 24;
+
+    // members are added in chunks, Lua cannot unpack more than a few
+    // thousand values at once
+    private static final RedisScript<Long> REPLACE = new DefaultRedisScript<>(
+            "if (redis.call('get', KEYS[2]) or '0') ~= ARGV[1] then return 0 end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "for i = 3, #ARGV, 1000 do "
+                    + "redis.call('sadd', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end "
+                    + "redis.call('expire', KEYS[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>(
+            "redis.call('incr', KEYS[2]) redis.call('sadd', KEYS[1], ARGV[1]) return 1", Long.class);
+
+    private static final RedisScript<Long> REMOVE = new DefaultRedisScript<>(
+            "redis.call('incr', KEYS[2]) redis.call('srem', KEYS[1], ARGV[1]) return 1", Long.class);
+
+    @Autowired
+    private FeedShardRouter feedShardRouter;
+
+    public Set<Long> getMembers(int profileId) {
+        return feedShardRouter.forProfile(profileId).opsForSet().members(FeedKeys.following(profileId));
+    }
+
+    /**
+     * Checks one member with a single SMISMEMBER. Returns null when the set has
+     * not been loaded from the database, so the caller has to load it first.
+     */
+    public Boolean isMember(int profileId, int followingId) {
+        Long member = Long.valueOf(followingId);
+        Map<Object, Boolean> result = feedShardRouter.forProfile(profileId).opsForSet()
+                .isMember(FeedKeys.following(profileId), LOADED_MARKER, member);
+        if (result == null || !Boolean.TRUE.equals(result.get(LOADED_MARKER))) {
+            return null;
+        }
+        return Boolean.TRUE.equals(result.get(member));
+    }
+
+    public long getVersion(int profileId) {
+        Long version = feedShardRouter.forProfile(profileId).opsForValue().get(FeedKeys.followingVersion(profileId));
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Replaces the set in one script, so readers never see it empty or half
+     * filled, unless a follow or unfollow bumped the version after
+     * {@code version} was read. Returns whether the set was stored.
+     */
+    public boolean replace(int profileId, long[] followingIds, long version) {
+        Long[] args = new Long[followingIds.length + 3];
+        args[0] = version;
+        args[1] = TimeUnit.HOURS.toSeconds(TTL_HOURS);
+        args[2] = LOADED_MARKER;
+        for (int i = 0; i < followingIds.length; i++) {
+            args[i + 3] = followingIds[i];
+        }
+        Long stored = feedShardRouter.forProfile(profileId).execute(REPLACE, keys(profileId), (Object[]) args);
+        return stored != null && stored == 1;
+    }
+
+    public void add(int profileId, int followingId) {
+        feedShardRouter.forProfile(profileId).execute(ADD, keys(profileId), Long.valueOf(followingId));
+    }
+
+    public void remove(int profileId, int followingId) {
+        feedShardRouter.forProfile(profileId).execute(REMOVE, keys(profileId), Long.valueOf(followingId));
+    }
+
+    private static List<String> keys(int profileId) {
+        return List.of(FeedKeys.following(profileId), FeedKeys.followingVersion(profileId));
+    }
+}
@@ -0,0 +1,103 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inverted index from hashtag to post ids. Each tag is a ZSET scored by the
+ * post's creation time; post ids are not in creation order. A page starts
+ * right after the cursor post's rank, so posts created in the same
+ * millisecond are neither skipped nor repeated.
+ */
+@Repository
+public class HashtagRepository {
+    private static final String TAG_POSTS_KEY_PREFIX = "tag-posts:";
+    private static final String TAG_COUNTS_KEY = "tag-counts";
+
+    @Autowired
+    private RedisTemplate<String, Long> redisTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    public record TaggedPost(int postId, Date createdAt, Collection<String> tags) {
+    }
+
+    public void addPost(Collection<String> tags, int postId, Date createdAt) {
+        addPosts(List.of(new TaggedPost(postId, createdAt, tags)));
+    }
+
+    /**
+     * Indexes all posts in one pipeline. Post ids are written as decimal
+     * strings, the bytes the Long template writes and reads them as.
+     */
+    public void addPosts(List<TaggedPost> posts) {
+        if (posts.stream().allMatch(post -> post.tags().isEmpty())) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (TaggedPost post : posts) {
+                    for (String tag : post.tags()) {
+                        ops.opsForZSet().add(TAG_POSTS_KEY_PREFIX + tag, Integer.toString(post.postId()),
+                                post.createdAt().getTime());
+                        ops.opsForZSet().incrementScore(TAG_COUNTS_KEY, tag, 1);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    public void removePost(Collection<String> tags, int postId) {
+        for (String tag : tags) {
+            Long removed = redisTemplate.opsForZSet().remove(TAG_POSTS_KEY_PREFIX + tag, Long.valueOf(postId));
+            if (Objects.nonNull(removed) && removed > 0) {
+                stringRedisTemplate.opsForZSet().incrementScore(TAG_COUNTS_KEY, tag, -1);
+            }
+        }
+    }
+
+    /**
+     * Returns the post ids that follow {@code cursorPostId} newest first, or
+     * the newest ones for a null cursor. A cursor that is no longer tagged,
+     * because its post was deleted, gives an empty page.
+     */
+    public List<Integer> getPostIdsAfter(String tag, Integer cursorPostId, int limit) {
+        String tagKey = TAG_POSTS_KEY_PREFIX + tag;
+        long start = 0;
+        if (Objects.nonNull(cursorPostId)) {
+            Long rank = redisTemplate.opsForZSet().reverseRank(tagKey, Long.valueOf(cursorPostId));
+            if (Objects.isNull(rank)) {
+                return List.of();
+            }
+            start = rank + 1;
+        }
+        Set<Long> postIds = redisTemplate.opsForZSet().reverseRange(tagKey, start, start + limit - 1);
+        List<Integer> result = new ArrayList<>();
+        if (Objects.nonNull(postIds)) {
+            postIds.forEach(postId -> result.add(postId.intValue()));
+        }
+        return result;
+    }
+
+    public long getPostCount(String tag) {
+        Double count = stringRedisTemplate.opsForZSet().score(TAG_COUNTS_KEY, tag);
+        return Objects.isNull(count) ? 0 : count.longValue();
+    }
+}
@@ -0,0 +1,32 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Named leases in redis, used to run a scheduled job on one app node only.
+ * A lease is never released, it only expires: a node whose clock runs a
+ * little behind would otherwise take a lease the moment the job finished
+ * and run the same tick again. The lease ttl is therefore at least the
+ * job's interval, and the value holds when the lease was taken.
+ */
+@Repository
+public class JobLockRepository {
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private static String lockKey(String name) {
+        return "job-lock:" + name;
+    }
+
+    /**
+     * Returns false when another node holds the lease.
+     */
+    public boolean tryLock(String name, long ttlMillis) {
+        return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey(name),
+                Long.toString(System.currentTimeMillis()), ttlMillis, TimeUnit.MILLISECONDS));
+    }
+}
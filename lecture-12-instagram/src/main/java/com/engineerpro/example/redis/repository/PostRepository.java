@@ -1,11 +1,14 @@
 package com.engineerpro.example.redis.repository;
 
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.engineerpro.example.redis.model.Post;
 import com.engineerpro.example.redis.model.Profile;
@@ -16,10 +19,36 @@ public interface PostRepository extends JpaRepository<Post, Integer> {
 
   List<Post> findByCreatedBy(Profile createdBy);
 
-  @Query(value = "select * from post where created_by_id in :ids order by created_at desc LIMIT :limit OFFSET :offset", nativeQuery = true)
+  @Query(value = "select * from post where created_by_id in :ids order by created_at desc, id desc LIMIT :limit OFFSET :offset", nativeQuery = true)
   List<Post> findByCreatedBy(@Param("ids") List<Integer> createdByIdList, @Param(value = "limit") int limit,
       @Param(value = "offset") int offset);
 
-  @Query(value = "select count(*) from post where created_by_id in :ids", nativeQuery = true)
-  int countByCreatedByIn(@Param("ids") List<Integer> createdByIdList);
+  // same page as findByCreatedBy, without loading the rows
+  @Query(value = "select id from post where created_by_id in :ids order by created_at desc, id desc LIMIT :limit OFFSET :offset", nativeQuery = true)
+  List<Integer> findIdByCreatedBy(@Param("ids") List<Integer> createdByIdList, @Param(value = "limit") int limit,
+      @Param(value = "offset") int offset);
+
+  // posts after the (createdAt, id) cursor, newest first
+  @Query(value = "select * from post where created_by_id in :ids and (created_at > :sinceCreatedAt or (created_at = :sinceCreatedAt and id > :sinceId)) order by created_at desc, id desc LIMIT :limit", nativeQuery = true)
+  List<Post> findByCreatedByAfter(@Param("ids") List<Integer> createdByIdList,
+      @Param(value = "sinceCreatedAt") Date sinceCreatedAt, @Param(value = "sinceId") int sinceId,
+      @Param(value = "limit") int limit);
+
+  @Query("select p.createdAt from Post p where p.id = :id")
+  Date findCreatedAtById(@Param("id") int id);
+
+  @Query(value = "select id from post where created_by_id in :ids order by created_at desc, id desc LIMIT :limit", nativeQuery = true)
+  List<Integer> findRecentIdByCreatedByIn(@Param("ids") List<Integer> createdByIdList,
+      @Param(value = "limit") int limit);
+
+  @Query(value = "select created_by_id, count(*) from post where created_by_id in :ids group by created_by_id", nativeQuery = true)
+  List<Object[]> countGroupByCreatedBy(@Param("ids") List<Integer> createdByIdList);
+
+  @Modifying
+  @Transactional
+  @Query(value = "update post set version = version + 1, last_modified_at = :now where id = :id", nativeQuery = true)
+  int incrementVersion(@Param("id") int id, @Param("now") Date now);
+
+  @Query(value = "select version from post where id = :id", nativeQuery = true)
+  Long findVersionById(@Param("id") int id);
 }
@@ -0,0 +1,45 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Repository;
+
+import com.engineerpro.example.redis.model.Profile;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Repository
+public class ProfileCacheRepository {
+    private static final String PROFILE_KEY_PREFIX = "profile-entry:";
+
+    @Autowired
+    private RedisTemplate<String, Profile> profileRedisTemplate;
+
+    @Value("${profile.cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    public Profile get(int profileId) {
+        try {
+            return profileRedisTemplate.opsForValue().get(PROFILE_KEY_PREFIX + profileId);
+        } catch (SerializationException e) {
+            // written with another schema version, reload it
+            log.warn("dropping unreadable profile entry profileId={}", profileId, e);
+            evict(profileId);
+            return null;
+        }
+    }
+
+    public void put(Profile profile) {
+        profileRedisTemplate.opsForValue().set(PROFILE_KEY_PREFIX + profile.getId(), profile, ttlSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    public void evict(int profileId) {
+        profileRedisTemplate.delete(PROFILE_KEY_PREFIX + profileId);
+    }
+}
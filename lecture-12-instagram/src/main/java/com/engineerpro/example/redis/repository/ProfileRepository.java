@@ -1,11 +1,28 @@
 package com.engineerpro.example.redis.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.engineerpro.example.redis.model.Profile;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Integer> {
   Profile findOneByUserId(String userId);
+
+  @Query(value = "select id from profile where id > :afterId order by id LIMIT :limit", nativeQuery = true)
+  List<Integer> findIdAfter(@Param(value = "afterId") int afterId, @Param(value = "limit") int limit);
+
+  @Modifying
+  @Transactional
+  @Query(value = "update profile set version = version + 1 where id = :id", nativeQuery = true)
+  int incrementVersion(@Param("id") int id);
+
+  @Query(value = "select version from profile where id = :id", nativeQuery = true)
+  Long findVersionById(@Param("id") int id);
 }
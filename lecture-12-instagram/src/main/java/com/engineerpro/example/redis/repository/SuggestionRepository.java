@@ -0,0 +1,31 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SuggestionRepository {
+    @Autowired
+    private FeedShardRouter feedShardRouter;
+
+    public List<Long> getSuggestions(int profileId, int limit) {
+        return feedShardRouter.forProfile(profileId).opsForList().range(FeedKeys.suggestions(profileId), 0, limit - 1);
+    }
+
+    public void saveSuggestions(Map<Integer, List<Long>> suggestions, long ttlHours) {
+        feedShardRouter.pipelinedByShard(suggestions.keySet(), (ops, shardProfileIds) -> {
+            for (Integer profileId : shardProfileIds) {
+                String suggestionKey = FeedKeys.suggestions(profileId);
+                ops.delete(suggestionKey);
+                if (!suggestions.get(profileId).isEmpty()) {
+                    ops.opsForList().rightPushAll(suggestionKey, suggestions.get(profileId));
+                    ops.expire(suggestionKey, ttlHours, TimeUnit.HOURS);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Per-node trending snapshots and their merged view. All keys of a window share
+ * the {trending:window} hash tag so ZUNIONSTORE also works on Redis Cluster.
+ */
+@Repository
+public class TrendingRepository {
+    @Autowired
+    private RedisTemplate<String, Long> redisTemplate;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private static String mergedKey(String window) {
+        return "{trending:" + window + "}";
+    }
+
+    private static String nodesKey(String window) {
+        return "{trending:" + window + "}:nodes";
+    }
+
+    private static String nodeKey(String window, String nodeId) {
+        return "{trending:" + window + "}:node:" + nodeId;
+    }
+
+    public void saveNodeSnapshot(String window, String nodeId, Map<Integer, Double> scores, long ttlSeconds) {
+        String nodeKey = nodeKey(window, nodeId);
+        Set<TypedTuple<Long>> tuples = scores.entrySet().stream()
+                .map(entry -> TypedTuple.of(Long.valueOf(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toSet());
+        redisTemplate.delete(nodeKey);
+        if (!tuples.isEmpty()) {
+            redisTemplate.opsForZSet().add(nodeKey, tuples);
+            redisTemplate.expire(nodeKey, ttlSeconds, TimeUnit.SECONDS);
+        }
+        long nowMillis = System.currentTimeMillis();
+        stringRedisTemplate.opsForZSet().add(nodesKey(window), nodeId, nowMillis);
+        stringRedisTemplate.opsForZSet().removeRangeByScore(nodesKey(window), 0, nowMillis - ttlSeconds * 1000);
+    }
+
+    public Map<Integer, Double> getNodeSnapshot(String window, String nodeId) {
+        return toScores(redisTemplate.opsForZSet().reverseRangeWithScores(nodeKey(window, nodeId), 0, -1));
+    }
+
+    /**
+     * Sums the snapshots of all live nodes into the merged key and returns its
+     * top {@code limit} entries.
+     */
+    public Map<Integer, Double> mergeAndGetTop(String window, int limit) {
+        Set<String> nodeIds = stringRedisTemplate.opsForZSet().range(nodesKey(window), 0, -1);
+        if (nodeIds == null || nodeIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> nodeKeys = nodeIds.stream().map(nodeId -> nodeKey(window, nodeId)).toList();
+        redisTemplate.opsForZSet().unionAndStore(nodeKeys.get(0), nodeKeys.subList(1, nodeKeys.size()),
+                mergedKey(window));
+        redisTemplate.opsForZSet().removeRange(mergedKey(window), 0, -limit - 1);
+        return toScores(redisTemplate.opsForZSet().reverseRangeWithScores(mergedKey(window), 0, limit - 1));
+    }
+
+    private static Map<Integer, Double> toScores(Set<TypedTuple<Long>> tuples) {
+        Map<Integer, Double> scores = new LinkedHashMap<>();
+        if (tuples != null) {
+            for (TypedTuple<Long> tuple : tuples) {
+                scores.put(tuple.getValue().intValue(), tuple.getScore());
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,142 @@
+package com.engineerpro.example.redis.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Latest known version of each post and profile, so a conditional GET can be
+ * answered without loading the entity. A stamp only ever moves forward: a
+ * reader that loaded an older row cannot overwrite the version a concurrent
+ * writer just stored. Each post stamp is paired with the id of its author, so
+ * the author's profile stamp can be checked as well.
+ */
+@Repository
+public class VersionStampRepository {
+    private static final String POST_VERSION_KEY_PREFIX = "post-version:";
+    private static final String POST_AUTHOR_KEY_PREFIX = "post-author:";
+    private static final String PROFILE_VERSION_KEY_PREFIX = "profile-version:";
+    private static final long TTL_SECONDS = 24 * 3600;
+    private static final RedisScript<Long> ADVANCE = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1])) "
+                    + "if current == nil or current < tonumber(ARGV[1]) then "
+                    + "redis.call('set', KEYS[1], ARGV[1], 'EX', ARGV[2]) return tonumber(ARGV[1]) end "
+                    + "return current",
+            Long.class);
+
+    @Autowired
+    private RedisTemplate<String, Long> redisTemplate;
+
+    /**
+     * Returns {@code {version, authorId}} of the posts that have both stamps,
+     * read in a single pipeline.
+     */
+    public Map<Integer, long[]> getPostStamps(List<Integer> postIds) {
+        List<Object> values = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Long> ops = (RedisOperations<String, Long>) operations;
+                for (Integer postId : postIds) {
+                    ops.opsForValue().get(POST_VERSION_KEY_PREFIX + postId);
+                    ops.opsForValue().get(POST_AUTHOR_KEY_PREFIX + postId);
+                }
+                return null;
+            }
+        });
+        Map<Integer, long[]> stamps = new HashMap<>();
+        for (int i = 0; i < postIds.size(); i++) {
+            Long version = (Long) values.get(2 * i);
+            Long authorId = (Long) values.get(2 * i + 1);
+            if (version != null && authorId != null) {
+                stamps.put(postIds.get(i), new long[] { version, authorId });
+            }
+        }
+        return stamps;
+    }
+
+    public void setPostAuthor(int postId, int authorId) {
+        redisTemplate.opsForValue().set(POST_AUTHOR_KEY_PREFIX + postId, Long.valueOf(authorId), TTL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    public void advancePostVersion(int postId, long version) {
+        advance(POST_VERSION_KEY_PREFIX + postId, version);
+    }
+
+    public void deletePostVersion(int postId) {
+        redisTemplate.delete(List.of(POST_VERSION_KEY_PREFIX + postId, POST_AUTHOR_KEY_PREFIX + postId));
+    }
+
+    public Long getProfileVersion(int profileId) {
+        return redisTemplate.opsForValue().get(PROFILE_VERSION_KEY_PREFIX + profileId);
+    }
+
+    /**
+     * Returns the stamps of the profiles that have one, read in a single
+     * pipeline.
+     */
+    public Map<Integer, Long> getProfileVersions(Collection<Integer> profileIds) {
+        List<Integer> ids = new ArrayList<>(profileIds);
+        List<Object> values = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Long> ops = (RedisOperations<String, Long>) operations;
+                for (Integer profileId : ids) {
+                    ops.opsForValue().get(PROFILE_VERSION_KEY_PREFIX + profileId);
+                }
+                return null;
+            }
+        });
+        Map<Integer, Long> versions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) != null) {
+                versions.put(ids.get(i), (Long) values.get(i));
+            }
+        }
+        return versions;
+    }
+
+    public void advanceProfileVersion(int profileId, long version) {
+        advance(PROFILE_VERSION_KEY_PREFIX + profileId, version);
+    }
+
+    /**
+     * Advances post and profile stamps and sets post authors, all in a single
+     * pipeline.
+     */
+    public void advanceAll(Map<Integer, Long> postVersions, Map<Integer, Integer> postAuthors,
+            Map<Integer, Long> profileVersions) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, Long> ops = (RedisOperations<String, Long>) operations;
+                postVersions.forEach((postId, version) -> ops.execute(ADVANCE,
+                        List.of(POST_VERSION_KEY_PREFIX + postId), version, TTL_SECONDS));
+                postAuthors.forEach((postId, authorId) -> ops.opsForValue().set(POST_AUTHOR_KEY_PREFIX + postId,
+                        Long.valueOf(authorId), TTL_SECONDS, TimeUnit.SECONDS));
+                profileVersions.forEach((profileId, version) -> ops.execute(ADVANCE,
+                        List.of(PROFILE_VERSION_KEY_PREFIX + profileId), version, TTL_SECONDS));
+                return null;
+            }
+        });
+    }
+
+    private void advance(String key, long version) {
+        redisTemplate.execute(ADVANCE, List.of(key), version, TTL_SECONDS);
+    }
+}
@@ -8,6 +8,8 @@ import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.engineerpro.example.redis.config.MinioConfig;
+
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import lombok.extern.slf4j.Slf4j;
@@ -46,7 +48,7 @@ public class UploadServiceImpl implements UploadService {
   public String uploadImage(String base64) {
     String fileName = String.format("%s.%s", UUID.randomUUID().toString(), this.getFileExtension(base64));
     try {
-      minioClient.putObject(PutObjectArgs.builder().bucket("spring-boot")
+      minioClient.putObject(PutObjectArgs.builder().bucket(MinioConfig.BUCKET)
           .object(fileName)
           .stream(this.getImageFromBase64(base64), -1, 5242880).build());
     } catch (Exception e) {
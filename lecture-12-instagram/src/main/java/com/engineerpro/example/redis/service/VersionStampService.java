@@ -0,0 +1,26 @@
+package com.engineerpro.example.redis.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.engineerpro.example.redis.model.Post;
+import com.engineerpro.example.redis.model.Profile;
+
+public interface VersionStampService {
+  Long getPostState(int postId);
+
+  Map<Integer, Long> getPostStates(List<Integer> postIds);
+
+  Long getProfileVersion(int profileId);
+
+  void recordPosts(Collection<Post> posts);
+
+  void recordProfile(Profile profile);
+
+  void touchPost(Post post);
+
+  void touchProfile(Profile profile);
+
+  void forgetPost(int postId);
+}
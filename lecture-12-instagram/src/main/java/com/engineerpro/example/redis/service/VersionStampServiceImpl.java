@@ -0,0 +1,126 @@
+package com.engineerpro.example.redis.service;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.model.Post;
+import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.repository.ProfileRepository;
+import com.engineerpro.example.redis.repository.VersionStampRepository;
+import com.engineerpro.example.redis.utils.ETags;
+
+@Service
+public class VersionStampServiceImpl implements VersionStampService {
+  @Autowired
+  private VersionStampRepository versionStampRepository;
+
+  @Autowired
+  private PostRepository postRepository;
+
+  @Autowired
+  private ProfileRepository profileRepository;
+
+  @Override
+  public Long getPostState(int postId) {
+    return getPostStates(List.of(postId)).get(postId);
+  }
+
+  /**
+   * Returns the {@link ETags#postState state} of the posts whose own stamp and
+   * author profile stamp are both known.
+   */
+  @Override
+  public Map<Integer, Long> getPostStates(List<Integer> postIds) {
+    Map<Integer, long[]> stamps = versionStampRepository.getPostStamps(postIds);
+    Set<Integer> authorIds = new HashSet<>();
+    stamps.values().forEach(stamp -> authorIds.add((int) stamp[1]));
+    Map<Integer, Long> authorVersions = authorIds.isEmpty() ? Map.of()
+        : versionStampRepository.getProfileVersions(authorIds);
+    Map<Integer, Long> states = new HashMap<>();
+    for (Map.Entry<Integer, long[]> entry : stamps.entrySet()) {
+      Long authorVersion = authorVersions.get((int) entry.getValue()[1]);
+      if (Objects.nonNull(authorVersion)) {
+        states.put(entry.getKey(), ETags.postState(entry.getValue()[0], authorVersion));
+      }
+    }
+    return states;
+  }
+
+  @Override
+  public Long getProfileVersion(int profileId) {
+    return versionStampRepository.getProfileVersion(profileId);
+  }
+
+  /**
+   * Stamps the posts, their authors and the authors' profiles in one
+   * pipeline.
+   */
+  @Override
+  public void recordPosts(Collection<Post> posts) {
+    if (posts.isEmpty()) {
+      return;
+    }
+    Map<Integer, Long> postVersions = new HashMap<>();
+    Map<Integer, Integer> postAuthors = new HashMap<>();
+    Map<Integer, Long> authorVersions = new HashMap<>();
+    for (Post post : posts) {
+      postVersions.merge(post.getId(), post.getVersion(), Math::max);
+      if (Objects.nonNull(post.getCreatedBy())) {
+        postAuthors.put(post.getId(), post.getCreatedBy().getId());
+        authorVersions.merge(post.getCreatedBy().getId(), post.getCreatedBy().getVersion(), Math::max);
+      }
+    }
+    versionStampRepository.advanceAll(postVersions, postAuthors, authorVersions);
+  }
+
+  @Override
+  public void recordProfile(Profile profile) {
+    versionStampRepository.advanceProfileVersion(profile.getId(), profile.getVersion());
+  }
+
+  /**
+   * Bumps the version of a post whose likes or comments changed and stamps
+   * the new value on {@code post}.
+   */
+  @Override
+  public void touchPost(Post post) {
+    Date now = new Date();
+    postRepository.incrementVersion(post.getId(), now);
+    Long version = postRepository.findVersionById(post.getId());
+    if (Objects.isNull(version)) {
+      return;
+    }
+    post.setVersion(version);
+    post.setLastModifiedAt(now);
+    versionStampRepository.advancePostVersion(post.getId(), version);
+    if (Objects.nonNull(post.getCreatedBy())) {
+      versionStampRepository.setPostAuthor(post.getId(), post.getCreatedBy().getId());
+    }
+  }
+
+  @Override
+  public void touchProfile(Profile profile) {
+    profileRepository.incrementVersion(profile.getId());
+    Long version = profileRepository.findVersionById(profile.getId());
+    if (Objects.isNull(version)) {
+      return;
+    }
+    profile.setVersion(version);
+    versionStampRepository.advanceProfileVersion(profile.getId(), version);
+  }
+
+  @Override
+  public void forgetPost(int postId) {
+    versionStampRepository.deletePostVersion(postId);
+  }
+}
@@ -3,9 +3,11 @@ package com.engineerpro.example.redis.service.feed;
 import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.event.AfterCreateCommentEvent;
 import com.engineerpro.example.redis.dto.feed.CreateCommentRequest;
 import com.engineerpro.example.redis.exception.CommentNotFoundException;
 import com.engineerpro.example.redis.exception.NoPermissionException;
@@ -15,6 +17,7 @@ import com.engineerpro.example.redis.model.Post;
 import com.engineerpro.example.redis.model.Profile;
 import com.engineerpro.example.redis.repository.CommentRepository;
 import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.service.VersionStampService;
 import com.engineerpro.example.redis.service.profile.ProfileService;
 
 @Service
@@ -29,6 +32,12 @@ public class CommentServiceImpl implements CommentService {
   @Autowired
   private CommentRepository commentRepository;
 
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private VersionStampService versionStampService;
+
   @Override
   public Post createComment(UserPrincipal userPrincipal, CreateCommentRequest request) {
     Profile profile = profileService.getUserProfile(userPrincipal);
@@ -39,6 +48,9 @@ public class CommentServiceImpl implements CommentService {
     comment.setCreatedBy(profile);
     comment.setPost(post);
     commentRepository.save(comment);
+    versionStampService.touchPost(post);
+    eventPublisher.publishEvent(
+        AfterCreateCommentEvent.builder().commentId(comment.getId()).postId(post.getId()).build());
     return post;
   }
 
@@ -50,6 +62,7 @@ public class CommentServiceImpl implements CommentService {
       throw new NoPermissionException();
     }
     commentRepository.delete(comment);
+    versionStampService.touchPost(comment.getPost());
     return comment.getPost();
   }
 
@@ -1,18 +1,24 @@
 package com.engineerpro.example.redis.service.feed;
 
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.GetFeedDeltaResponse;
 import com.engineerpro.example.redis.dto.feed.GetFeedResponse;
 import com.engineerpro.example.redis.model.Post;
 import com.engineerpro.example.redis.model.Profile;
-import com.engineerpro.example.redis.model.UserFollowing;
-import com.engineerpro.example.redis.repository.FollowerRepository;
 import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.service.VersionStampService;
+import com.engineerpro.example.redis.service.profile.CountsService;
+import com.engineerpro.example.redis.service.profile.FollowingCacheService;
 import com.engineerpro.example.redis.service.profile.ProfileService;
+import com.engineerpro.example.redis.utils.ETags;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,26 +32,90 @@ public class DynamicFeedServiceImpl implements FeedService {
   private PostRepository postRepository;
 
   @Autowired
-  private FollowerRepository followerRepository;
+  private FollowingCacheService followingCacheService;
+
+  @Autowired
+  private CountsService countsService;
+
+  @Autowired
+  private VersionStampService versionStampService;
 
   @Override
   public GetFeedResponse getFeed(UserPrincipal userPrincipal, int limit, int page) {
     Profile profile = profileService.getUserProfile(userPrincipal);
 
-    List<UserFollowing> followings = followerRepository.findByFollowerUserId(profile.getId());
-    List<Integer> followingProfileIdList = followings.stream().map(following -> following.getFollowingUserId())
-        .toList();
+    int[] followingIds = followingCacheService.getFollowingIds(profile.getId());
+    if (followingIds.length == 0) {
+      return GetFeedResponse.builder().posts(List.of()).totalPage(0).build();
+    }
+    List<Integer> followingProfileIdList = Arrays.stream(followingIds).boxed().toList();
     log.info("followingProfileIdList={}", followingProfileIdList);
-    int totalPost = postRepository.countByCreatedByIn(followingProfileIdList);
+    long totalPost = countsService.getPostCount(followingProfileIdList);
     log.info("totalPost={}", totalPost);
     int totalPage = (int) Math.ceil((double) totalPost / limit);
     int offset = (page - 1) * limit;
 
     List<Post> posts = postRepository
         .findByCreatedBy(followingProfileIdList, limit, offset);
+    versionStampService.recordPosts(posts);
 
     return GetFeedResponse.builder()
         .posts(posts).totalPage(totalPage).build();
   }
 
+  @Override
+  public GetFeedDeltaResponse getFeedSince(UserPrincipal userPrincipal, int sincePostId, int limit) {
+    Profile profile = profileService.getUserProfile(userPrincipal);
+
+    int[] followingIds = followingCacheService.getFollowingIds(profile.getId());
+    if (followingIds.length == 0) {
+      return GetFeedDeltaResponse.builder().posts(List.of()).newestPostId(sincePostId).gap(false).build();
+    }
+    List<Integer> followingProfileIdList = Arrays.stream(followingIds).boxed().toList();
+
+    // post ids are not in creation order, so the cursor is the cursor post's
+    // (createdAt, id); a deleted or unknown cursor makes every post new
+    Date sinceCreatedAt = sincePostId > 0 ? postRepository.findCreatedAtById(sincePostId) : null;
+    if (sinceCreatedAt == null) {
+      sinceCreatedAt = new Date(0);
+    }
+    // read one extra row to tell "exactly limit new posts" from a gap
+    List<Post> posts = postRepository.findByCreatedByAfter(followingProfileIdList, sinceCreatedAt, sincePostId,
+        limit + 1);
+    boolean gap = posts.size() > limit;
+    if (gap) {
+      posts = posts.subList(0, limit);
+    }
+    log.info("sincePostId={}, newPost={}, gap={}", sincePostId, posts.size(), gap);
+    int newestPostId = posts.isEmpty() ? sincePostId : posts.get(0).getId();
+
+    return GetFeedDeltaResponse.builder()
+        .posts(posts).newestPostId(newestPostId).gap(gap).build();
+  }
+
+  /**
+   * The page is only known from the post table, so this runs the id-only form
+   * of the page query and builds the tag from the redis stamps. A match skips
+   * loading the rows with their authors, comments and likes.
+   */
+  @Override
+  public String getFeedEtag(UserPrincipal userPrincipal, int limit, int page) {
+    Profile profile = profileService.getUserProfile(userPrincipal);
+    int[] followingIds = followingCacheService.getFollowingIds(profile.getId());
+    if (followingIds.length == 0) {
+      return null;
+    }
+    List<Integer> followingProfileIdList = Arrays.stream(followingIds).boxed().toList();
+    List<Integer> postIds = postRepository.findIdByCreatedBy(followingProfileIdList, limit, (page - 1) * limit);
+    if (postIds.isEmpty()) {
+      return null;
+    }
+    Map<Integer, Long> postStates = versionStampService.getPostStates(postIds);
+    if (postStates.size() < postIds.size()) {
+      return null;
+    }
+    int totalPage = (int) Math.ceil((double) countsService.getPostCount(followingProfileIdList) / limit);
+    return ETags.feed(postStates, totalPage);
+  }
+
 }
@@ -0,0 +1,31 @@
+package com.engineerpro.example.redis.service.feed;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface FeedArchiveService {
+  /**
+   * Moves the entries beyond the hot size of each feed to the archive, for
+   * feeds that have outgrown it by at least one archive batch.
+   */
+  void archiveOverflow(Collection<Integer> profileIds);
+
+  long getArchivedCount(int profileId);
+
+  /**
+   * Returns up to {@code count} archived post ids of a profile, newest first,
+   * skipping the {@code offset} newest archived entries.
+   */
+  List<Long> getArchived(int profileId, long offset, int count);
+
+  /**
+   * Replaces whole feeds, drops their archived blocks and archives any
+   * overflow, holding each profile's archive lock throughout. Posts fanned
+   * out after {@code pushCounts} were read stay at the head. Returns the
+   * profiles whose feeds were written; a profile whose lock stays taken is
+   * skipped.
+   */
+  Set<Integer> replaceFeeds(Map<Integer, List<Long>> feeds, Map<Integer, Long> pushCounts);
+}
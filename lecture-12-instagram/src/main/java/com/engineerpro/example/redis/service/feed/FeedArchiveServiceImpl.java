@@ -0,0 +1,185 @@
+package com.engineerpro.example.redis.service.feed;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.codec.PostIdListCodec;
+import com.engineerpro.example.redis.model.FeedArchiveBlock;
+import com.engineerpro.example.redis.repository.FeedArchiveBlockRepository;
+import com.engineerpro.example.redis.repository.FeedRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps each redis feed list between {@code hot-size} and {@code hot-size +
+ * archive-batch} entries. The oldest entries are written to mysql as packed
+ * blocks before they are trimmed from redis, so a failure between the two
+ * steps leaves a duplicate, never a gap.
+ */
+@Slf4j
+@Service
+public class FeedArchiveServiceImpl implements FeedArchiveService {
+  private static final long LOCK_TIMEOUT_SECONDS = 30;
+  private static final long LOCK_WAIT_MILLIS = 5000;
+  private static final long LOCK_RETRY_MILLIS = 20;
+
+  @Autowired
+  private FeedRepository feedRepository;
+
+  @Autowired
+  private FeedArchiveBlockRepository feedArchiveBlockRepository;
+
+  @Value("${feed.retention.hot-size:1000}")
+  private int hotSize;
+
+  @Value("${feed.retention.archive-batch:200}")
+  private int archiveBatch;
+
+  @Value("${feed.retention.block-size:500}")
+  private int blockSize;
+
+  private final PostIdListCodec postIdListCodec = new PostIdListCodec();
+
+  @Override
+  public void archiveOverflow(Collection<Integer> profileIds) {
+    if (profileIds.isEmpty()) {
+      return;
+    }
+    for (Map.Entry<Integer, Long> entry : feedRepository.getFeedSizes(profileIds).entrySet()) {
+      if (entry.getValue() >= hotSize + archiveBatch) {
+        archive(entry.getKey());
+      }
+    }
+  }
+
+  @Override
+  public Set<Integer> replaceFeeds(Map<Integer, List<Long>> feeds, Map<Integer, Long> pushCounts) {
+    Map<Integer, Long> tokens = new LinkedHashMap<>();
+    try {
+      for (Integer profileId : feeds.keySet()) {
+        Long token = lockArchive(profileId);
+        if (Objects.nonNull(token)) {
+          tokens.put(profileId, token);
+        } else {
+          log.warn("skip feed replace, archive lock is taken profileId={}", profileId);
+        }
+      }
+      if (tokens.isEmpty()) {
+        return tokens.keySet();
+      }
+      Map<Integer, List<Long>> lockedFeeds = new LinkedHashMap<>(feeds);
+      lockedFeeds.keySet().retainAll(tokens.keySet());
+      feedArchiveBlockRepository.deleteByProfileIdIn(lockedFeeds.keySet());
+      feedRepository.replaceFeeds(lockedFeeds, pushCounts);
+      for (Map.Entry<Integer, Long> entry : feedRepository.getFeedSizes(lockedFeeds.keySet()).entrySet()) {
+        if (entry.getValue() >= hotSize + archiveBatch) {
+          archiveLocked(entry.getKey());
+        }
+      }
+      return tokens.keySet();
+    } finally {
+      tokens.forEach(feedRepository::unlockArchive);
+    }
+  }
+
+  private void archive(int profileId) {
+    // two consumers fanning out to the same follower must not archive the
+    // same tail twice, and a rebuild must not replace the feed meanwhile
+    Long token = feedRepository.tryLockArchive(profileId, LOCK_TIMEOUT_SECONDS);
+    if (Objects.isNull(token)) {
+      return;
+    }
+    try {
+      archiveLocked(profileId);
+    } finally {
+      feedRepository.unlockArchive(profileId, token);
+    }
+  }
+
+  // a rebuild waits for a running archive instead of skipping the profile
+  private Long lockArchive(int profileId) {
+    long deadline = System.currentTimeMillis() + LOCK_WAIT_MILLIS;
+    Long token = feedRepository.tryLockArchive(profileId, LOCK_TIMEOUT_SECONDS);
+    while (Objects.isNull(token) && System.currentTimeMillis() < deadline) {
+      try {
+        TimeUnit.MILLISECONDS.sleep(LOCK_RETRY_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      token = feedRepository.tryLockArchive(profileId, LOCK_TIMEOUT_SECONDS);
+    }
+    return token;
+  }
+
+  private void archiveLocked(int profileId) {
+    long overflow = feedRepository.getFeedSize(profileId) - hotSize;
+    if (overflow <= 0) {
+      return;
+    }
+    List<Long> tail = feedRepository.getTail(profileId, (int) overflow);
+    // the tail is newest first like the feed; blocks keep that order inside
+    // and are written oldest first so block ids grow with recency
+    List<FeedArchiveBlock> blocks = new ArrayList<>();
+    for (int end = tail.size(); end > 0; end -= blockSize) {
+      List<Long> postIds = tail.subList(Math.max(0, end - blockSize), end);
+      blocks.add(FeedArchiveBlock.builder()
+          .profileId(profileId)
+          .postCount(postIds.size())
+          .postIds(postIdListCodec.encode(postIds))
+          .createdAt(new Date())
+          .build());
+    }
+    feedArchiveBlockRepository.saveAll(blocks);
+    feedRepository.trimTail(profileId, tail.size());
+    feedRepository.incrementArchivedCount(profileId, tail.size());
+    log.info("archived feed entries profileId={}, count={}, blocks={}", profileId, tail.size(), blocks.size());
+  }
+
+  @Override
+  public long getArchivedCount(int profileId) {
+    Long count = feedRepository.getArchivedCount(profileId);
+    if (Objects.isNull(count)) {
+      count = feedArchiveBlockRepository.sumPostCountByProfileId(profileId);
+      feedRepository.setArchivedCount(profileId, count);
+    }
+    return count;
+  }
+
+  @Override
+  public List<Long> getArchived(int profileId, long offset, int count) {
+    List<Long> postIds = new ArrayList<>(count);
+    long skipped = 0;
+    for (Object[] block : feedArchiveBlockRepository.findBlockSizesByProfileId(profileId)) {
+      long blockId = ((Number) block[0]).longValue();
+      int blockCount = ((Number) block[1]).intValue();
+      if (skipped + blockCount <= offset) {
+        skipped += blockCount;
+        continue;
+      }
+      List<Long> blockPostIds = feedArchiveBlockRepository.findById(blockId)
+          .map(archiveBlock -> postIdListCodec.decode(archiveBlock.getPostIds()))
+          .orElse(List.of());
+      int from = (int) Math.max(0, offset - skipped);
+      for (int i = from; i < blockPostIds.size() && postIds.size() < count; i++) {
+        postIds.add(blockPostIds.get(i));
+      }
+      skipped += blockCount;
+      if (postIds.size() == count) {
+        break;
+      }
+    }
+    return postIds;
+  }
+}
@@ -0,0 +1,11 @@
+package com.engineerpro.example.redis.service.feed;
+
+import com.engineerpro.example.redis.dto.feed.FeedRebuildProgress;
+
+public interface FeedRebuildService {
+  int rebuildFeed(int profileId);
+
+  FeedRebuildProgress startBulkRebuild();
+
+  FeedRebuildProgress getProgress();
+}
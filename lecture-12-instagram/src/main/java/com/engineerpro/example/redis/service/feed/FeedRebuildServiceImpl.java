@@ -0,0 +1,259 @@
+package com.engineerpro.example.redis.service.feed;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.dto.feed.FeedRebuildProgress;
+import com.engineerpro.example.redis.model.UserFollowing;
+import com.engineerpro.example.redis.repository.FeedRepository;
+import com.engineerpro.example.redis.repository.FollowerRepository;
+import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.service.profile.FollowingCacheService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class FeedRebuildServiceImpl implements FeedRebuildService {
+  @Autowired
+  private FollowerRepository followerRepository;
+
+  @Autowired
+  private PostRepository postRepository;
+
+  @Autowired
+  private FeedArchiveService feedArchiveService;
+
+  @Autowired
+  private FeedRepository feedRepository;
+
+  @Autowired
+  private FollowingCacheService followingCacheService;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${feed.rebuild.max-posts:1000}")
+  private int maxPosts;
+
+  @Value("${feed.rebuild.threads:4}")
+  private int threads;
+
+  @Value("${feed.rebuild.scan-batch-size:1000}")
+  private int scanBatchSize;
+
+  @Value("${feed.rebuild.users-per-task:50}")
+  private int usersPerTask;
+
+  @Value("${feed.rebuild.max-users-per-second:500}")
+  private int maxUsersPerSecond;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final AtomicLong scannedFollowings = new AtomicLong();
+  private final AtomicLong rebuiltUsers = new AtomicLong();
+  private final AtomicLong failedUsers = new AtomicLong();
+  private final AtomicLong writtenPosts = new AtomicLong();
+  private volatile Date startedAt;
+  private volatile Date finishedAt;
+
+  private Counter rebuiltCounter;
+  private Counter failedCounter;
+  private Counter postCounter;
+
+  @PostConstruct
+  void initMetrics() {
+    rebuiltCounter = Counter.builder("feed.rebuild.users").tag("result", "rebuilt").register(meterRegistry);
+    failedCounter = Counter.builder("feed.rebuild.users").tag("result", "failed").register(meterRegistry);
+    postCounter = Counter.builder("feed.rebuild.posts").register(meterRegistry);
+    meterRegistry.gauge("feed.rebuild.running", running, flag -> flag.get() ? 1 : 0);
+  }
+
+  @Override
+  public int rebuildFeed(int profileId) {
+    int[] followingIds = followingCacheService.getFollowingIds(profileId);
+    List<Integer> followingIdList = Arrays.stream(followingIds).boxed().toList();
+    // read before the load, so posts fanned out meanwhile are kept
+    Map<Integer, Long> pushCounts = feedRepository.getPushCounts(List.of(profileId));
+    Map<Integer, List<Long>> feeds = new LinkedHashMap<>();
+    feeds.put(profileId, loadRecentPostIds(followingIdList));
+    if (feedArchiveService.replaceFeeds(feeds, pushCounts).isEmpty()) {
+      throw new IllegalStateException("feed of profileId=" + profileId + " is locked by the archiver");
+    }
+    log.info("rebuilt feed profileId={}, size={}", profileId, feeds.get(profileId).size());
+    return feeds.get(profileId).size();
+  }
+
+  @Override
+  public FeedRebuildProgress startBulkRebuild() {
+    if (!running.compareAndSet(false, true)) {
+      return getProgress();
+    }
+    scannedFollowings.set(0);
+    rebuiltUsers.set(0);
+    failedUsers.set(0);
+    writtenPosts.set(0);
+    startedAt = new Date();
+    finishedAt = null;
+
+    Thread coordinator = new Thread(this::runBulkRebuild, "feed-rebuild-coordinator");
+    coordinator.setDaemon(true);
+    coordinator.start();
+    return getProgress();
+  }
+
+  @Override
+  public FeedRebuildProgress getProgress() {
+    return FeedRebuildProgress.builder()
+        .running(running.get())
+        .scannedFollowings(scannedFollowings.get())
+        .rebuiltUsers(rebuiltUsers.get())
+        .failedUsers(failedUsers.get())
+        .writtenPosts(writtenPosts.get())
+        .startedAt(startedAt)
+        .finishedAt(finishedAt)
+        .build();
+  }
+
+  /**
+   * Walks user_following in (follower, following) order with a keyset scan, so
+   * every follower's rows arrive contiguously, and hands groups of complete
+   * followers to the worker pool. A full work queue makes the coordinator run
+   * the task itself, which keeps memory bounded while the pool is saturated.
+   */
+  private void runBulkRebuild() {
+    ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(threads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+    long submittedUsers = 0;
+    long startNanos = System.nanoTime();
+    try {
+      int lastFollowerId = 0;
+      int lastFollowingId = 0;
+      int currentFollowerId = 0;
+      List<Integer> currentFollowings = new ArrayList<>();
+      Map<Integer, List<Integer>> pending = new LinkedHashMap<>();
+
+      List<UserFollowing> page = followerRepository.findPageAfter(lastFollowerId, lastFollowingId, scanBatchSize);
+      while (!page.isEmpty()) {
+        scannedFollowings.addAndGet(page.size());
+        for (UserFollowing userFollowing : page) {
+          if (userFollowing.getFollowerUserId() != currentFollowerId) {
+            if (currentFollowerId != 0) {
+              pending.put(currentFollowerId, currentFollowings);
+            }
+            currentFollowerId = userFollowing.getFollowerUserId();
+            currentFollowings = new ArrayList<>();
+          }
+          currentFollowings.add(userFollowing.getFollowingUserId());
+        }
+        if (pending.size() >= usersPerTask) {
+          submittedUsers += pending.size();
+          submit(executor, pending);
+          pending = new LinkedHashMap<>();
+          throttle(submittedUsers, startNanos);
+        }
+
+        UserFollowing last = page.get(page.size() - 1);
+        lastFollowerId = last.getFollowerUserId();
+        lastFollowingId = last.getFollowingUserId();
+        page = followerRepository.findPageAfter(lastFollowerId, lastFollowingId, scanBatchSize);
+      }
+      if (currentFollowerId != 0) {
+        pending.put(currentFollowerId, currentFollowings);
+      }
+      if (!pending.isEmpty()) {
+        submit(executor, pending);
+      }
+
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.DAYS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("feed rebuild interrupted");
+    } catch (Exception e) {
+      log.error("feed rebuild failed", e);
+    } finally {
+      executor.shutdownNow();
+      finishedAt = new Date();
+      running.set(false);
+      log.info("feed rebuild finished {}", getProgress());
+    }
+  }
+
+  private void submit(ExecutorService executor, Map<Integer, List<Integer>> followingsByUser) {
+    executor.execute(() -> rebuildBatch(followingsByUser));
+  }
+
+  private void rebuildBatch(Map<Integer, List<Integer>> followingsByUser) {
+    Map<Integer, Long> pushCounts;
+    try {
+      pushCounts = feedRepository.getPushCounts(followingsByUser.keySet());
+    } catch (Exception e) {
+      log.error("cannot read push counts of {} feeds", followingsByUser.size(), e);
+      failedUsers.addAndGet(followingsByUser.size());
+      failedCounter.increment(followingsByUser.size());
+      return;
+    }
+    Map<Integer, List<Long>> feeds = new LinkedHashMap<>();
+    for (Map.Entry<Integer, List<Integer>> entry : followingsByUser.entrySet()) {
+      try {
+        feeds.put(entry.getKey(), loadRecentPostIds(entry.getValue()));
+      } catch (Exception e) {
+        log.error("cannot load posts for profileId={}", entry.getKey(), e);
+        failedUsers.incrementAndGet();
+        failedCounter.increment();
+      }
+    }
+    Set<Integer> written;
+    try {
+      written = feedArchiveService.replaceFeeds(feeds, pushCounts);
+    } catch (Exception e) {
+      log.error("cannot write {} feeds", feeds.size(), e);
+      failedUsers.addAndGet(feeds.size());
+      failedCounter.increment(feeds.size());
+      return;
+    }
+    int skipped = feeds.size() - written.size();
+    failedUsers.addAndGet(skipped);
+    failedCounter.increment(skipped);
+    long posts = written.stream().mapToLong(profileId -> feeds.get(profileId).size()).sum();
+    rebuiltUsers.addAndGet(written.size());
+    writtenPosts.addAndGet(posts);
+    rebuiltCounter.increment(written.size());
+    postCounter.increment(posts);
+  }
+
+  private List<Long> loadRecentPostIds(List<Integer> followingIds) {
+    if (followingIds.isEmpty()) {
+      return List.of();
+    }
+    return postRepository.findRecentIdByCreatedByIn(followingIds, maxPosts).stream()
+        .map(Long::valueOf).toList();
+  }
+
+  // paces submissions so the scan never runs ahead of max-users-per-second
+  private void throttle(long submittedUsers, long startNanos) throws InterruptedException {
+    long expectedNanos = submittedUsers * TimeUnit.SECONDS.toNanos(1) / maxUsersPerSecond;
+    long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+    if (aheadNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(aheadNanos);
+    }
+  }
+}
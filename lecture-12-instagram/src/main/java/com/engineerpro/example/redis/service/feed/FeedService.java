@@ -1,8 +1,17 @@
 package com.engineerpro.example.redis.service.feed;
 
 import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.GetFeedDeltaResponse;
 import com.engineerpro.example.redis.dto.feed.GetFeedResponse;
 
 public interface FeedService {
   GetFeedResponse getFeed(UserPrincipal userPrincipal, int limit, int page);
+
+  GetFeedDeltaResponse getFeedSince(UserPrincipal userPrincipal, int sincePostId, int limit);
+
+  /**
+   * Returns the ETag the page would get without loading its posts, or null
+   * when that cannot be known up front.
+   */
+  String getFeedEtag(UserPrincipal userPrincipal, int limit, int page);
 }
@@ -0,0 +1,11 @@
+package com.engineerpro.example.redis.service.feed;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.ImportPostsResponse;
+
+public interface PostImportService {
+  ImportPostsResponse importPosts(UserPrincipal userPrincipal, BufferedReader ndjson) throws IOException;
+}
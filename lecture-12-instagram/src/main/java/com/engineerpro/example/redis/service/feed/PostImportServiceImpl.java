@@ -0,0 +1,180 @@
+package com.engineerpro.example.redis.service.feed;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.engineerpro.example.redis.config.MessageQueueConfig;
+import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.ImportPostRequest;
+import com.engineerpro.example.redis.dto.feed.ImportPostsResponse;
+import com.engineerpro.example.redis.dto.feed.PostsImportedMessage;
+import com.engineerpro.example.redis.model.Post;
+import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.repository.HashtagRepository;
+import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.service.profile.CountsService;
+import com.engineerpro.example.redis.service.profile.ProfileService;
+import com.engineerpro.example.redis.utils.HashtagExtractor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports posts whose images are already in object storage. Rows are written
+ * in batches of {@code post.import.batch-size}, one transaction and one
+ * batched JDBC insert per batch (post ids come from a pooled table generator,
+ * so Hibernate does not need a round trip per row), and followers get a single
+ * fan-out message for the whole import. Only posts created within
+ * {@code post.import.fan-out-max-age-minutes} are pushed to feeds; pushing
+ * back-dated posts would put them at the head of each feed, ahead of newer
+ * posts. Older ones are still found through profiles, tags and feed rebuilds.
+ * Since everything is ordered by creation time, lines dated more than
+ * {@code post.import.max-future-skew-seconds} ahead or
+ * {@code post.import.max-age-days} back are skipped; a post from the future
+ * would stay on top of every feed and tag until that date.
+ */
+@Slf4j
+@Service
+public class PostImportServiceImpl implements PostImportService {
+  private static final int MAX_CAPTION_LENGTH = 2000;
+
+  @Autowired
+  private ProfileService profileService;
+
+  @Autowired
+  private PostRepository postRepository;
+
+  @Autowired
+  private HashtagRepository hashtagRepository;
+
+  @Autowired
+  private CountsService countsService;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private RabbitTemplate rabbitTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${post.import.batch-size:500}")
+  private int batchSize;
+
+  @Value("${post.import.fan-out-max-age-minutes:60}")
+  private long fanOutMaxAgeMinutes;
+
+  @Value("${post.import.max-future-skew-seconds:300}")
+  private long maxFutureSkewSeconds;
+
+  @Value("${post.import.max-age-days:7300}")
+  private long maxAgeDays;
+
+  @Override
+  public ImportPostsResponse importPosts(UserPrincipal userPrincipal, BufferedReader ndjson) throws IOException {
+    Profile profile = profileService.getUserProfile(userPrincipal);
+    List<Post> batch = new ArrayList<>(batchSize);
+    List<Integer> postIds = new ArrayList<>();
+    // id and creation time of the posts recent enough to fan out
+    List<Post> fanOutPosts = new ArrayList<>();
+    Date fanOutSince = new Date(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(fanOutMaxAgeMinutes));
+    int skipped = 0;
+    String line;
+    while ((line = ndjson.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      Post post = toPost(line, profile);
+      if (Objects.isNull(post)) {
+        skipped++;
+        continue;
+      }
+      batch.add(post);
+      if (batch.size() == batchSize) {
+        postIds.addAll(insert(batch, fanOutSince, fanOutPosts));
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      postIds.addAll(insert(batch, fanOutSince, fanOutPosts));
+    }
+    log.info("imported posts profileId={}, imported={}, skipped={}", profile.getId(), postIds.size(), skipped);
+
+    if (!postIds.isEmpty()) {
+      countsService.onPostsCreated(profile.getId(), postIds.size());
+    }
+    if (!fanOutPosts.isEmpty()) {
+      List<Integer> fanOutPostIds = fanOutPosts.stream()
+          .sorted(Comparator.comparing(Post::getCreatedAt).thenComparingInt(Post::getId))
+          .map(Post::getId).toList();
+      rabbitTemplate.convertAndSend(MessageQueueConfig.AFTER_IMPORT_POSTS_QUEUE, objectMapper.writeValueAsString(
+          PostsImportedMessage.builder().authorId(profile.getId()).postIds(fanOutPostIds).build()));
+    }
+    return ImportPostsResponse.builder().imported(postIds.size()).skipped(skipped).build();
+  }
+
+  private Post toPost(String line, Profile profile) {
+    ImportPostRequest request;
+    try {
+      request = objectMapper.readValue(line, ImportPostRequest.class);
+    } catch (JsonProcessingException e) {
+      log.warn("skip malformed import line: {}", e.getOriginalMessage());
+      return null;
+    }
+    if (Objects.isNull(request.getImageUrl()) || request.getImageUrl().isBlank()
+        || (Objects.nonNull(request.getCaption()) && request.getCaption().length() > MAX_CAPTION_LENGTH)) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    Date createdAt = Objects.nonNull(request.getCreatedAt()) ? request.getCreatedAt() : new Date(now);
+    if (createdAt.getTime() > now + TimeUnit.SECONDS.toMillis(maxFutureSkewSeconds)
+        || createdAt.getTime() < now - TimeUnit.DAYS.toMillis(maxAgeDays)) {
+      log.warn("skip import line with createdAt={} out of range", createdAt.toInstant());
+      return null;
+    }
+    return Post.builder()
+        .imageUrl(request.getImageUrl())
+        .caption(request.getCaption())
+        .createdAt(createdAt)
+        .createdBy(profile)
+        .build();
+  }
+
+  private List<Integer> insert(List<Post> batch, Date fanOutSince, List<Post> fanOutPosts) {
+    List<Integer> postIds = transactionTemplate.execute(status -> {
+      postRepository.saveAll(batch);
+      entityManager.flush();
+      // keep the request-scoped persistence context from growing with the import
+      entityManager.clear();
+      return batch.stream().map(Post::getId).toList();
+    });
+    hashtagRepository.addPosts(batch.stream()
+        .map(post -> new HashtagRepository.TaggedPost(post.getId(), post.getCreatedAt(),
+            HashtagExtractor.extract(post.getCaption())))
+        .toList());
+    for (Post post : batch) {
+      if (!post.getCreatedAt().before(fanOutSince)) {
+        fanOutPosts.add(Post.builder().id(post.getId()).createdAt(post.getCreatedAt()).build());
+      }
+    }
+    return postIds;
+  }
+}
@@ -11,6 +11,9 @@ public interface PostService {
 
   Post getPost(int postId);
 
+  // loads the posts and keeps the order of postIds, missing posts are skipped
+  List<Post> getPosts(List<Integer> postIds);
+
   void deletePost(UserPrincipal userPrincipal, int postId);
 
   Post likePost(UserPrincipal userPrincipal, int postId);
@@ -1,22 +1,32 @@
 package com.engineerpro.example.redis.service.feed;
 
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.engineerpro.example.redis.config.MessageQueueConfig;
 import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.event.AfterCreatePostEvent;
+import com.engineerpro.example.redis.dto.event.LikePostEvent;
 import com.engineerpro.example.redis.dto.feed.CreatePostRequest;
 import com.engineerpro.example.redis.exception.NoPermissionException;
 import com.engineerpro.example.redis.exception.PostNotFoundException;
 import com.engineerpro.example.redis.model.Post;
 import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.repository.HashtagRepository;
 import com.engineerpro.example.redis.repository.PostRepository;
 import com.engineerpro.example.redis.service.UploadService;
+import com.engineerpro.example.redis.service.VersionStampService;
+import com.engineerpro.example.redis.service.profile.CountsService;
 import com.engineerpro.example.redis.service.profile.ProfileService;
+import com.engineerpro.example.redis.utils.HashtagExtractor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
@@ -33,12 +43,24 @@ public class PostServiceImpl implements PostService {
   @Autowired
   private PostRepository postRepository;
 
+  @Autowired
+  private HashtagRepository hashtagRepository;
+
+  @Autowired
+  private CountsService countsService;
+
+  @Autowired
+  private VersionStampService versionStampService;
+
   @Autowired
   RabbitTemplate rabbitTemplate;
 
   @Autowired
   ObjectMapper objectMapper;
 
+  @Autowired
+  ApplicationEventPublisher eventPublisher;
+
   @Override
   public Post createPost(UserPrincipal userPrincipal, CreatePostRequest request) {
     Profile profile = profileService.getUserProfile(userPrincipal);
@@ -49,15 +71,34 @@ public class PostServiceImpl implements PostService {
     post.setCreatedBy(profile);
     post.setImageUrl(url);
     postRepository.save(post);
+    countsService.onPostCreated(profile.getId());
+    versionStampService.recordPosts(List.of(post));
+    hashtagRepository.addPost(HashtagExtractor.extract(post.getCaption()), post.getId(), post.getCreatedAt());
 
     rabbitTemplate.convertAndSend(MessageQueueConfig.AFTER_CREATE_POST_QUEUE, post.getId());
+    eventPublisher.publishEvent(AfterCreatePostEvent.builder().postId(post.getId()).build());
 
     return post;
   }
 
   @Override
   public Post getPost(int postId) {
-    return postRepository.findById(postId).orElseThrow(PostNotFoundException::new);
+    Post post = postRepository.findById(postId).orElseThrow(PostNotFoundException::new);
+    versionStampService.recordPosts(List.of(post));
+    return post;
+  }
+
+  @Override
+  public List<Post> getPosts(List<Integer> postIds) {
+    Map<Integer, Integer> positions = new HashMap<>();
+    for (int i = 0; i < postIds.size(); i++) {
+      positions.putIfAbsent(postIds.get(i), i);
+    }
+    List<Post> posts = postRepository.findAllById(postIds).stream()
+        .sorted(Comparator.comparingInt(post -> positions.get(post.getId())))
+        .toList();
+    versionStampService.recordPosts(posts);
+    return posts;
   }
 
   @Override
@@ -68,14 +109,20 @@ public class PostServiceImpl implements PostService {
       throw new NoPermissionException();
     }
     postRepository.delete(post);
+    countsService.onPostDeleted(profile.getId());
+    versionStampService.forgetPost(post.getId());
+    hashtagRepository.removePost(HashtagExtractor.extract(post.getCaption()), post.getId());
   }
 
   @Override
   public Post likePost(UserPrincipal userPrincipal, int postId) {
     Profile profile = profileService.getUserProfile(userPrincipal);
     Post post = getPost(postId);
-    post.getUserLikes().add(profile);
-    postRepository.save(post);
+    if (post.getUserLikes().add(profile)) {
+      postRepository.save(post);
+      versionStampService.touchPost(post);
+      eventPublisher.publishEvent(LikePostEvent.builder().profileId(profile.getId()).postId(postId).build());
+    }
 
     return post;
   }
@@ -84,8 +131,10 @@ public class PostServiceImpl implements PostService {
   public Post unlikePost(UserPrincipal userPrincipal, int postId) {
     Profile profile = profileService.getUserProfile(userPrincipal);
     Post post = getPost(postId);
-    post.getUserLikes().remove(profile);
-    postRepository.save(post);
+    if (post.getUserLikes().remove(profile)) {
+      postRepository.save(post);
+      versionStampService.touchPost(post);
+    }
     return post;
   }
 
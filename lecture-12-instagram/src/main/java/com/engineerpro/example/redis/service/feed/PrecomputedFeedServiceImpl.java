@@ -1,17 +1,25 @@
 package com.engineerpro.example.redis.service.feed;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.engineerpro.example.redis.dto.UserPrincipal;
+import com.engineerpro.example.redis.dto.feed.GetFeedDeltaResponse;
 import com.engineerpro.example.redis.dto.feed.GetFeedResponse;
 import com.engineerpro.example.redis.model.Post;
 import com.engineerpro.example.redis.model.Profile;
 import com.engineerpro.example.redis.repository.FeedRepository;
 import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.service.VersionStampService;
 import com.engineerpro.example.redis.service.profile.ProfileService;
+import com.engineerpro.example.redis.utils.ETags;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,16 +35,39 @@ public class PrecomputedFeedServiceImpl implements FeedService {
   @Autowired
   private FeedRepository feedRepository;
 
+  @Autowired
+  private FeedRebuildService feedRebuildService;
+
+  @Autowired
+  private VersionStampService versionStampService;
+
+  @Autowired
+  private FeedArchiveService feedArchiveService;
+
+  @Value("${feed.rebuild.empty-ttl-seconds:300}")
+  private long emptyFeedTtlSeconds;
+
   @Override
   public GetFeedResponse getFeed(UserPrincipal userPrincipal, int limit, int page) {
     Profile profile = profileService.getUserProfile(userPrincipal);
 
-    List<Long> postIds = feedRepository.getFeed(profile.getId(), limit, page);
+    if (page == 1) {
+      feedRepository.resetUnseen(profile.getId());
+      // the feed key is gone after a redis flush or eviction; a rebuild that
+      // finds nothing is remembered for a while so profiles without followees
+      // or posts don't hit the database on every read
+      if (feedRepository.getFeedSize(profile.getId()) == 0 && !feedRepository.isFeedMarkedEmpty(profile.getId())
+          && feedRebuildService.rebuildFeed(profile.getId()) == 0) {
+        feedRepository.markFeedEmpty(profile.getId(), emptyFeedTtlSeconds);
+      }
+    }
+    List<Long> postIds = getPagePostIds(profile.getId(), limit, page);
     log.info("postIds={}", postIds);
 
-    List<Post> posts = postRepository.findAllById(postIds.stream().map(Long::intValue).toList());
+    List<Post> posts = findInOrder(postIds.stream().map(Long::intValue).toList());
+    versionStampService.recordPosts(posts);
 
-    Long totalPost = feedRepository.getFeedSize(profile.getId());
+    long totalPost = getTotalSize(profile.getId());
     log.info("totalPost={}", totalPost);
     int totalPage = (int) Math.ceil((double) totalPost / limit);
 
@@ -44,4 +75,73 @@ public class PrecomputedFeedServiceImpl implements FeedService {
         .posts(posts).totalPage(totalPage).build();
   }
 
+  @Override
+  public GetFeedDeltaResponse getFeedSince(UserPrincipal userPrincipal, int sincePostId, int limit) {
+    Profile profile = profileService.getUserProfile(userPrincipal);
+    feedRepository.resetUnseen(profile.getId());
+
+    // the feed list is newest first in push order and post ids are not in
+    // creation order, so everything ahead of the cursor entry is new; read one
+    // extra entry to tell "exactly limit new posts" from a gap
+    List<Integer> latestIds = feedRepository.getLatest(profile.getId(), limit + 1).stream()
+        .map(Long::intValue).toList();
+    int cursor = latestIds.indexOf(sincePostId);
+    List<Integer> newerIds = cursor >= 0 ? latestIds.subList(0, cursor) : latestIds;
+    boolean gap = newerIds.size() > limit;
+    if (gap) {
+      newerIds = newerIds.subList(0, limit);
+    }
+    log.info("sincePostId={}, newerIds={}, gap={}", sincePostId, newerIds, gap);
+
+    List<Post> posts = findInOrder(newerIds);
+    int newestPostId = posts.isEmpty() ? sincePostId : posts.get(0).getId();
+
+    return GetFeedDeltaResponse.builder()
+        .posts(posts).newestPostId(newestPostId).gap(gap).build();
+  }
+
+  @Override
+  public String getFeedEtag(UserPrincipal userPrincipal, int limit, int page) {
+    Profile profile = profileService.getUserProfile(userPrincipal);
+    List<Integer> postIds = getPagePostIds(profile.getId(), limit, page).stream().map(Long::intValue).toList();
+    if (postIds.isEmpty()) {
+      return null;
+    }
+    Map<Integer, Long> postStates = versionStampService.getPostStates(postIds);
+    if (postStates.size() < postIds.size()) {
+      return null;
+    }
+    int totalPage = (int) Math.ceil((double) getTotalSize(profile.getId()) / limit);
+    return ETags.feed(postStates, totalPage);
+  }
+
+  // findAllById returns primary key order, which is not creation order
+  private List<Post> findInOrder(List<Integer> postIds) {
+    Map<Integer, Integer> positions = new HashMap<>();
+    for (int i = 0; i < postIds.size(); i++) {
+      positions.put(postIds.get(i), i);
+    }
+    return postRepository.findAllById(postIds).stream()
+        .sorted(Comparator.comparingInt(post -> positions.get(post.getId()))).toList();
+  }
+
+  // pages run over the hot redis list first and continue into the archive
+  private List<Long> getPagePostIds(int profileId, int limit, int page) {
+    long start = (long) (page - 1) * limit;
+    long hotSize = feedRepository.getFeedSize(profileId);
+    List<Long> postIds = new ArrayList<>(limit);
+    if (start < hotSize) {
+      postIds.addAll(feedRepository.getRange(profileId, start, start + limit - 1));
+    }
+    long archivedOffset = Math.max(0, start - hotSize);
+    if (postIds.size() < limit && archivedOffset < feedArchiveService.getArchivedCount(profileId)) {
+      postIds.addAll(feedArchiveService.getArchived(profileId, archivedOffset, limit - postIds.size()));
+    }
+    return postIds;
+  }
+
+  private long getTotalSize(int profileId) {
+    return feedRepository.getFeedSize(profileId) + feedArchiveService.getArchivedCount(profileId);
+  }
+
 }
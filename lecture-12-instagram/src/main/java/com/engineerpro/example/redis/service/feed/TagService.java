@@ -0,0 +1,7 @@
+package com.engineerpro.example.redis.service.feed;
+
+import com.engineerpro.example.redis.dto.feed.GetTagPostsResponse;
+
+public interface TagService {
+  GetTagPostsResponse getTagPosts(String tag, Integer beforePostId, int limit);
+}
@@ -0,0 +1,37 @@
+package com.engineerpro.example.redis.service.feed;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.dto.feed.GetTagPostsResponse;
+import com.engineerpro.example.redis.repository.HashtagRepository;
+import com.engineerpro.example.redis.utils.HashtagExtractor;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class TagServiceImpl implements TagService {
+  @Autowired
+  private HashtagRepository hashtagRepository;
+
+  @Autowired
+  private PostService postService;
+
+  @Override
+  public GetTagPostsResponse getTagPosts(String tag, Integer beforePostId, int limit) {
+    String normalizedTag = HashtagExtractor.normalize(tag);
+    List<Integer> postIds = hashtagRepository.getPostIdsAfter(normalizedTag, beforePostId, limit);
+    log.info("tag={}, beforePostId={}, postIds={}", normalizedTag, beforePostId, postIds);
+    Integer nextCursor = postIds.size() == limit ? postIds.get(postIds.size() - 1) : null;
+
+    return GetTagPostsResponse.builder()
+        .tag(normalizedTag)
+        .totalPost(hashtagRepository.getPostCount(normalizedTag))
+        .posts(postService.getPosts(postIds))
+        .nextCursor(nextCursor)
+        .build();
+  }
+}
@@ -0,0 +1,127 @@
+package com.engineerpro.example.redis.service.image;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded directory of image files with least-recently-used eviction. Only
+ * the index (name to size, in access order) lives in memory; it is rebuilt
+ * from file modification times on start.
+ */
+@Slf4j
+public class ImageDiskCache {
+  private final Path directory;
+  private final long maxBytes;
+  private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+  private long evictions;
+
+  public ImageDiskCache(Path directory, long maxBytes) {
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+    try {
+      Files.createDirectories(directory);
+      List<Path> files;
+      try (Stream<Path> stream = Files.list(directory)) {
+        files = stream.filter(Files::isRegularFile).toList();
+      }
+      for (Path file : files.stream().sorted(Comparator.comparingLong(ImageDiskCache::lastModified)).toList()) {
+        if (file.getFileName().toString().contains(".part-")) {
+          Files.deleteIfExists(file);
+          continue;
+        }
+        long size = Files.size(file);
+        sizes.put(file.getFileName().toString(), size);
+        totalBytes += size;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    evictIfNeeded();
+  }
+
+  public synchronized Path get(String name) {
+    // get, unlike containsKey, moves the entry to the young end of the
+    // access order
+    return sizes.get(name) != null ? directory.resolve(name) : null;
+  }
+
+  /**
+   * Drops the entry of a file that disappeared behind the cache's back; an
+   * entry whose file is present again, because a concurrent fetch put it
+   * back, is kept.
+   */
+  public synchronized void removeIfMissing(String name) {
+    if (Files.exists(directory.resolve(name))) {
+      return;
+    }
+    Long size = sizes.remove(name);
+    if (size != null) {
+      totalBytes -= size;
+    }
+  }
+
+  public Path tempFile(String name) throws IOException {
+    return Files.createTempFile(directory, name + ".part-", "");
+  }
+
+  /**
+   * Moves a fully written temp file into the cache under {@code name}.
+   */
+  public synchronized Path put(String name, Path tempFile) throws IOException {
+    Path path = directory.resolve(name);
+    long size = Files.size(tempFile);
+    Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    Long previous = sizes.put(name, size);
+    totalBytes += size - (previous == null ? 0 : previous);
+    evictIfNeeded();
+    return path;
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public synchronized int getEntryCount() {
+    return sizes.size();
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  private synchronized void evictIfNeeded() {
+    Iterator<Map.Entry<String, Long>> iterator = sizes.entrySet().iterator();
+    // keep the newest entry even when it alone exceeds the budget
+    while (totalBytes > maxBytes && sizes.size() > 1 && iterator.hasNext()) {
+      Map.Entry<String, Long> eldest = iterator.next();
+      try {
+        Files.deleteIfExists(directory.resolve(eldest.getKey()));
+      } catch (IOException e) {
+        log.warn("cannot delete cached image name={}", eldest.getKey(), e);
+      }
+      totalBytes -= eldest.getValue();
+      evictions++;
+      iterator.remove();
+    }
+  }
+
+  private static long lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.engineerpro.example.redis.service.image;
+
+import java.nio.file.Path;
+
+public interface ImageService {
+  /**
+   * Returns a local file holding the image, fetching it from object storage
+   * into the disk cache on a miss.
+   */
+  Path getImage(String name);
+
+  /**
+   * Forgets the cached copy, which was found missing, and fetches the image
+   * again.
+   */
+  Path reloadImage(String name);
+}
@@ -0,0 +1,134 @@
+package com.engineerpro.example.redis.service.image;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.config.MinioConfig;
+import com.engineerpro.example.redis.exception.ImageNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ImageServiceImpl implements ImageService {
+  // object names are generated by UploadServiceImpl as <uuid>.<extension>
+  private static final Pattern IMAGE_NAME = Pattern.compile("[A-Za-z0-9-]{1,64}\\.[A-Za-z0-9]{1,8}");
+
+  @Autowired
+  private MinioClient minioClient;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${image.cache.dir:${java.io.tmpdir}/image-cache}")
+  private String cacheDir;
+
+  @Value("${image.cache.max-bytes:1073741824}")
+  private long maxBytes;
+
+  private final Map<String, CompletableFuture<Path>> downloads = new ConcurrentHashMap<>();
+  private ImageDiskCache diskCache;
+  private Counter hitCounter;
+  private Counter missCounter;
+
+  @PostConstruct
+  void init() {
+    diskCache = new ImageDiskCache(Paths.get(cacheDir), maxBytes);
+    hitCounter = Counter.builder("image.cache.requests").tag("result", "hit").register(meterRegistry);
+    missCounter = Counter.builder("image.cache.requests").tag("result", "miss").register(meterRegistry);
+    FunctionCounter.builder("image.cache.evictions", diskCache, ImageDiskCache::getEvictions).register(meterRegistry);
+    meterRegistry.gauge("image.cache.bytes", diskCache, ImageDiskCache::getTotalBytes);
+    meterRegistry.gauge("image.cache.entries", diskCache, ImageDiskCache::getEntryCount);
+    log.info("image cache dir={}, maxBytes={}", cacheDir, maxBytes);
+  }
+
+  @Override
+  public Path getImage(String name) {
+    if (!IMAGE_NAME.matcher(name).matches()) {
+      throw new ImageNotFoundException();
+    }
+    Path path = diskCache.get(name);
+    if (Objects.nonNull(path)) {
+      hitCounter.increment();
+      return path;
+    }
+    missCounter.increment();
+
+    // concurrent misses for the same object share one download
+    CompletableFuture<Path> download = new CompletableFuture<>();
+    CompletableFuture<Path> existing = downloads.putIfAbsent(name, download);
+    if (Objects.nonNull(existing)) {
+      try {
+        return existing.join();
+      } catch (CompletionException e) {
+        throw (RuntimeException) e.getCause();
+      }
+    }
+    try {
+      path = fetch(name);
+      download.complete(path);
+      return path;
+    } catch (RuntimeException e) {
+      download.completeExceptionally(e);
+      throw e;
+    } finally {
+      downloads.remove(name);
+    }
+  }
+
+  @Override
+  public Path reloadImage(String name) {
+    diskCache.removeIfMissing(name);
+    return getImage(name);
+  }
+
+  private Path fetch(String name) {
+    Path tempFile = null;
+    try (InputStream object = minioClient.getObject(
+        GetObjectArgs.builder().bucket(MinioConfig.BUCKET).object(name).build())) {
+      tempFile = diskCache.tempFile(name);
+      Files.copy(object, tempFile, StandardCopyOption.REPLACE_EXISTING);
+      return diskCache.put(name, tempFile);
+    } catch (ErrorResponseException e) {
+      if ("NoSuchKey".equals(e.errorResponse().code())) {
+        throw new ImageNotFoundException();
+      }
+      throw new IllegalStateException("cannot fetch image " + name, e);
+    } catch (Exception e) {
+      throw new IllegalStateException("cannot fetch image " + name, e);
+    } finally {
+      deleteQuietly(tempFile);
+    }
+  }
+
+  private static void deleteQuietly(Path tempFile) {
+    if (Objects.isNull(tempFile)) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(tempFile);
+    } catch (Exception e) {
+      log.warn("cannot delete temp file={}", tempFile, e);
+    }
+  }
+}
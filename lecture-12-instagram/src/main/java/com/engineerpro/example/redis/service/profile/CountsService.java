@@ -0,0 +1,21 @@
+package com.engineerpro.example.redis.service.profile;
+
+import java.util.Collection;
+
+public interface CountsService {
+  long getFollowerCount(int profileId);
+
+  long getFollowingCount(int profileId);
+
+  long getPostCount(Collection<Integer> profileIds);
+
+  void onFollow(int profileId, int followingId);
+
+  void onUnfollow(int profileId, int followingId);
+
+  void onPostCreated(int profileId);
+
+  void onPostsCreated(int profileId, int count);
+
+  void onPostDeleted(int profileId);
+}
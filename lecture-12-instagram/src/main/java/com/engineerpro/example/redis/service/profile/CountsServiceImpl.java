@@ -0,0 +1,151 @@
+package com.engineerpro.example.redis.service.profile;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.repository.CountsRepository;
+import com.engineerpro.example.redis.repository.CountsRepository.Counter;
+import com.engineerpro.example.redis.repository.FollowerRepository;
+import com.engineerpro.example.redis.repository.JobLockRepository;
+import com.engineerpro.example.redis.repository.PostRepository;
+import com.engineerpro.example.redis.repository.ProfileRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Follower, following and post totals kept in redis. A missing counter is
+ * loaded with one grouped count query, writes adjust cached counters in
+ * place, and a periodic job recounts cached counters from the database so
+ * any drift from failed or racing updates does not last.
+ */
+@Slf4j
+@Service
+public class CountsServiceImpl implements CountsService {
+  private static final String RECONCILE_LOCK = "counts-reconcile";
+
+  @Autowired
+  private CountsRepository countsRepository;
+
+  @Autowired
+  private FollowerRepository followerRepository;
+
+  @Autowired
+  private PostRepository postRepository;
+
+  @Autowired
+  private ProfileRepository profileRepository;
+
+  @Autowired
+  private JobLockRepository jobLockRepository;
+
+  @Value("${counts.ttl-hours:24}")
+  private long ttlHours;
+
+  @Value("${counts.reconcile-batch-size:1000}")
+  private int reconcileBatchSize;
+
+  @Value("${counts.reconcile-interval-ms:3600000}")
+  private long reconcileIntervalMs;
+
+  @Override
+  public long getFollowerCount(int profileId) {
+    return getCounts(Counter.FOLLOWERS, List.of(profileId)).get(profileId);
+  }
+
+  @Override
+  public long getFollowingCount(int profileId) {
+    return getCounts(Counter.FOLLOWINGS, List.of(profileId)).get(profileId);
+  }
+
+  @Override
+  public long getPostCount(Collection<Integer> profileIds) {
+    return getCounts(Counter.POSTS, profileIds).values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  @Override
+  public void onFollow(int profileId, int followingId) {
+    countsRepository.incrementIfPresent(Counter.FOLLOWINGS, profileId, 1);
+    countsRepository.incrementIfPresent(Counter.FOLLOWERS, followingId, 1);
+  }
+
+  @Override
+  public void onUnfollow(int profileId, int followingId) {
+    countsRepository.incrementIfPresent(Counter.FOLLOWINGS, profileId, -1);
+    countsRepository.incrementIfPresent(Counter.FOLLOWERS, followingId, -1);
+  }
+
+  @Override
+  public void onPostCreated(int profileId) {
+    countsRepository.incrementIfPresent(Counter.POSTS, profileId, 1);
+  }
+
+  @Override
+  public void onPostsCreated(int profileId, int count) {
+    countsRepository.incrementIfPresent(Counter.POSTS, profileId, count);
+  }
+
+  @Override
+  public void onPostDeleted(int profileId) {
+    countsRepository.incrementIfPresent(Counter.POSTS, profileId, -1);
+  }
+
+  /**
+   * Every node schedules the recount, but only the one that takes the lease
+   * runs it. The lease is kept for a whole interval rather than released at
+   * the end, so the other nodes' ticks within the same interval are skipped.
+   */
+  @Scheduled(fixedDelayString = "${counts.reconcile-interval-ms:3600000}")
+  public void reconcile() {
+    if (!jobLockRepository.tryLock(RECONCILE_LOCK, reconcileIntervalMs)) {
+      log.debug("counts reconcile runs on another node");
+      return;
+    }
+    long startMillis = System.currentTimeMillis();
+    int profiles = 0;
+    List<Integer> profileIds = profileRepository.findIdAfter(0, reconcileBatchSize);
+    while (!profileIds.isEmpty()) {
+      for (Counter counter : Counter.values()) {
+        countsRepository.refreshCounts(counter, countFromDatabase(counter, profileIds), ttlHours);
+      }
+      profiles += profileIds.size();
+      profileIds = profileRepository.findIdAfter(profileIds.get(profileIds.size() - 1), reconcileBatchSize);
+    }
+    log.info("reconciled counts profiles={}, tookMs={}", profiles, System.currentTimeMillis() - startMillis);
+  }
+
+  private Map<Integer, Long> getCounts(Counter counter, Collection<Integer> profileIds) {
+    Map<Integer, Long> counts = countsRepository.getCounts(counter, profileIds);
+    List<Integer> missing = profileIds.stream().filter(profileId -> !counts.containsKey(profileId)).toList();
+    if (!missing.isEmpty()) {
+      Map<Integer, Long> loaded = countFromDatabase(counter, missing);
+      countsRepository.setCounts(counter, loaded, ttlHours);
+      counts.putAll(loaded);
+    }
+    // a write racing with the load can push a counter below zero until the
+    // next reconcile
+    counts.replaceAll((profileId, count) -> Math.max(0, count));
+    return counts;
+  }
+
+  private Map<Integer, Long> countFromDatabase(Counter counter, List<Integer> profileIds) {
+    Function<List<Integer>, List<Object[]>> query = switch (counter) {
+      case FOLLOWERS -> followerRepository::countFollowersGroupByFollowingUserId;
+      case FOLLOWINGS -> followerRepository::countFollowingsGroupByFollowerUserId;
+      case POSTS -> postRepository::countGroupByCreatedBy;
+    };
+    Map<Integer, Long> counts = new HashMap<>();
+    profileIds.forEach(profileId -> counts.put(profileId, 0L));
+    for (Object[] row : query.apply(profileIds)) {
+      counts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+    }
+    return counts;
+  }
+}
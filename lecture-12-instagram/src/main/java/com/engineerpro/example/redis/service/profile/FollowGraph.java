@@ -0,0 +1,120 @@
+package com.engineerpro.example.redis.service.profile;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Follow graph in compressed sparse row form: the profiles followed by
+ * {@code p} are {@code targets[offsets[p] .. offsets[p + 1])}, sorted. Two int
+ * arrays hold the whole graph, about 4 bytes per edge plus 4 per profile.
+ */
+public class FollowGraph {
+  private final int[] offsets;
+  private final int[] targets;
+
+  private FollowGraph(int[] offsets, int[] targets) {
+    this.offsets = offsets;
+    this.targets = targets;
+  }
+
+  public int maxProfileId() {
+    return offsets.length - 2;
+  }
+
+  public int edgeCount() {
+    return targets.length;
+  }
+
+  public boolean follows(int follower, int following) {
+    return Arrays.binarySearch(targets, offsets[follower], offsets[follower + 1], following) >= 0;
+  }
+
+  /**
+   * Ranks the profiles followed by the profiles {@code profileId} follows, by
+   * number of such mutual paths, skipping itself and profiles it already
+   * follows. {@code scratch} must be zeroed, have room for every profile id and
+   * belong to the calling thread; it is left zeroed again.
+   *
+   * @param maxFanOut cap on how many followings of each intermediate profile
+   *                  are visited, so a profile following millions of accounts
+   *                  does not dominate the run
+   */
+  public int[] suggest(int profileId, int limit, int maxFanOut, int[] scratch) {
+    int[] touched = new int[16];
+    int touchedCount = 0;
+    for (int i = offsets[profileId]; i < offsets[profileId + 1]; i++) {
+      int middle = targets[i];
+      int end = Math.min(offsets[middle + 1], offsets[middle] + maxFanOut);
+      for (int j = offsets[middle]; j < end; j++) {
+        int candidate = targets[j];
+        if (candidate == profileId) {
+          continue;
+        }
+        if (scratch[candidate]++ == 0) {
+          if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, touchedCount * 2);
+          }
+          touched[touchedCount++] = candidate;
+        }
+      }
+    }
+
+    // min-heap of the best candidates seen so far, ordered by (mutuals, -id)
+    PriorityQueue<long[]> heap = new PriorityQueue<>(limit + 1,
+        (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+    for (int i = 0; i < touchedCount; i++) {
+      int candidate = touched[i];
+      int mutuals = scratch[candidate];
+      scratch[candidate] = 0;
+      if (follows(profileId, candidate)) {
+        continue;
+      }
+      heap.offer(new long[] { mutuals, candidate });
+      if (heap.size() > limit) {
+        heap.poll();
+      }
+    }
+
+    int[] result = new int[heap.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = (int) heap.poll()[1];
+    }
+    return result;
+  }
+
+  /**
+   * Collects edges that arrive ordered by (follower, following), which is how
+   * the keyset scan over user_following returns them.
+   */
+  public static class Builder {
+    private int[] followers = new int[1024];
+    private int[] followings = new int[1024];
+    private int size;
+    private int maxProfileId;
+
+    public void add(int follower, int following) {
+      if (size == followers.length) {
+        followers = Arrays.copyOf(followers, size * 2);
+        followings = Arrays.copyOf(followings, size * 2);
+      }
+      followers[size] = follower;
+      followings[size] = following;
+      size++;
+      maxProfileId = Math.max(maxProfileId, Math.max(follower, following));
+    }
+
+    public FollowGraph build() {
+      int[] offsets = new int[maxProfileId + 2];
+      for (int i = 0; i < size; i++) {
+        offsets[followers[i] + 1]++;
+      }
+      for (int i = 1; i < offsets.length; i++) {
+        offsets[i] += offsets[i - 1];
+      }
+      int[] targets = Arrays.copyOf(followings, size);
+      followers = null;
+      followings = null;
+      return new FollowGraph(offsets, targets);
+    }
+  }
+}
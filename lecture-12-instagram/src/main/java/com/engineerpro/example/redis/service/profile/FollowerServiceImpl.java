@@ -13,6 +13,7 @@ import com.engineerpro.example.redis.dto.profile.GetFollowingResponse;
 import com.engineerpro.example.redis.exception.InvalidInputException;
 import com.engineerpro.example.redis.model.Profile;
 import com.engineerpro.example.redis.model.UserFollowing;
+import com.engineerpro.example.redis.repository.FeedRepository;
 import com.engineerpro.example.redis.repository.FollowerRepository;
 
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,12 @@ public class FollowerServiceImpl implements FollowerService {
   private ProfileService profileService;
   @Autowired
   private FollowerRepository followerRepository;
+  @Autowired
+  private FollowingCacheService followingCacheService;
+  @Autowired
+  private CountsService countsService;
+  @Autowired
+  private FeedRepository feedRepository;
 
   @Override
   public void folowUser(UserPrincipal userPrincipal, int profileId) {
@@ -31,9 +38,11 @@ public class FollowerServiceImpl implements FollowerService {
     if (profile.getId() == profileId) {
       throw new InvalidInputException();
     }
+    // the row decides, the cached set may lag behind it
     UserFollowing existedUserFollowing = followerRepository.findByFollowerUserIdAndFollowingUserId(profile.getId(),
         profileId);
     if (Objects.nonNull(existedUserFollowing)) {
+      followingCacheService.onFollow(profile.getId(), profileId);
       return;
     }
 
@@ -42,6 +51,10 @@ public class FollowerServiceImpl implements FollowerService {
     userFollowing.setFollowingUserId(profileId);
     userFollowing.setCreatedAt(new Date());
     followerRepository.save(userFollowing);
+    followingCacheService.onFollow(profile.getId(), profileId);
+    // the next feed read rebuilds an empty feed with the new followee's posts
+    feedRepository.clearFeedEmpty(profile.getId());
+    countsService.onFollow(profile.getId(), profileId);
   }
 
   @Override
@@ -49,16 +62,17 @@ public class FollowerServiceImpl implements FollowerService {
     Profile profile = profileService.getUserProfile(userPrincipal);
     UserFollowing existedUserFollowing = followerRepository.findByFollowerUserIdAndFollowingUserId(profile.getId(),
         profileId);
-    if (Objects.isNull(existedUserFollowing)) {
-      return;
+    if (Objects.nonNull(existedUserFollowing)) {
+      followerRepository.delete(existedUserFollowing);
+      countsService.onUnfollow(profile.getId(), profileId);
     }
-    followerRepository.delete(existedUserFollowing);
+    followingCacheService.onUnfollow(profile.getId(), profileId);
   }
 
   @Override
   public GetFollowerResponse getFollowers(int profileId, int page, int limit) {
     profileService.getUserProfile(profileId);
-    int totalFollower = followerRepository.countByFollowingUserId(profileId);
+    long totalFollower = countsService.getFollowerCount(profileId);
     log.info("totalFollower={}", totalFollower);
     int totalPage = (int) Math.ceil((double) totalFollower / limit);
     int offset = (page - 1) * limit;
@@ -74,7 +88,7 @@ public class FollowerServiceImpl implements FollowerService {
   @Override
   public GetFollowingResponse getFollowings(int profileId, int page, int limit) {
     profileService.getUserProfile(profileId);
-    int totalFollowing = followerRepository.countByFollowerUserId(profileId);
+    long totalFollowing = countsService.getFollowingCount(profileId);
     log.info("totalFollowing={}", totalFollowing);
     int totalPage = (int) Math.ceil((double) totalFollowing / limit);
     int offset = (page - 1) * limit;
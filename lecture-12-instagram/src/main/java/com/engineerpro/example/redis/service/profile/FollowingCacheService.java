@@ -0,0 +1,11 @@
+package com.engineerpro.example.redis.service.profile;
+
+public interface FollowingCacheService {
+  int[] getFollowingIds(int profileId);
+
+  boolean isFollowing(int profileId, int followingId);
+
+  void onFollow(int profileId, int followingId);
+
+  void onUnfollow(int profileId, int followingId);
+}
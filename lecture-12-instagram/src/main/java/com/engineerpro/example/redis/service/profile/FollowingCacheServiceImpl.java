@@ -0,0 +1,72 @@
+package com.engineerpro.example.redis.service.profile;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.repository.FollowerRepository;
+import com.engineerpro.example.redis.repository.FollowingSetRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class FollowingCacheServiceImpl implements FollowingCacheService {
+  @Autowired
+  private FollowingSetRepository followingSetRepository;
+
+  @Autowired
+  private FollowerRepository followerRepository;
+
+  /**
+   * Returns the sorted ids of the profiles that {@code profileId} follows. The
+   * set is loaded from the database on first access (or when a write-through
+   * update hit an unloaded key) and served from redis afterwards.
+   */
+  @Override
+  public int[] getFollowingIds(int profileId) {
+    Set<Long> members = followingSetRepository.getMembers(profileId);
+    if (Objects.nonNull(members) && members.contains(FollowingSetRepository.LOADED_MARKER)) {
+      int[] followingIds = new int[members.size() - 1];
+      int i = 0;
+      for (Long member : members) {
+        if (member != FollowingSetRepository.LOADED_MARKER) {
+          followingIds[i++] = member.intValue();
+        }
+      }
+      Arrays.sort(followingIds);
+      return followingIds;
+    }
+
+    // read first: a follow or unfollow after this makes the replace a no-op
+    long version = followingSetRepository.getVersion(profileId);
+    List<Integer> loaded = followerRepository.findFollowingUserIdByFollowerUserId(profileId);
+    log.info("load following set profileId={}, size={}", profileId, loaded.size());
+    int[] followingIds = loaded.stream().mapToInt(Integer::intValue).sorted().toArray();
+    followingSetRepository.replace(profileId, Arrays.stream(followingIds).asLongStream().toArray(), version);
+    return followingIds;
+  }
+
+  @Override
+  public boolean isFollowing(int profileId, int followingId) {
+    Boolean member = followingSetRepository.isMember(profileId, followingId);
+    if (Objects.nonNull(member)) {
+      return member;
+    }
+    return Arrays.binarySearch(getFollowingIds(profileId), followingId) >= 0;
+  }
+
+  @Override
+  public void onFollow(int profileId, int followingId) {
+    followingSetRepository.add(profileId, followingId);
+  }
+
+  @Override
+  public void onUnfollow(int profileId, int followingId) {
+    followingSetRepository.remove(profileId, followingId);
+  }
+}
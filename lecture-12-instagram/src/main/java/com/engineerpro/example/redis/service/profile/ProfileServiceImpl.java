@@ -10,8 +10,10 @@ import com.engineerpro.example.redis.dto.profile.UpdateProfileImageRequest;
 import com.engineerpro.example.redis.dto.profile.UpdateProfileRequest;
 import com.engineerpro.example.redis.exception.UserNotFoundException;
 import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.repository.ProfileCacheRepository;
 import com.engineerpro.example.redis.repository.ProfileRepository;
 import com.engineerpro.example.redis.service.UploadService;
+import com.engineerpro.example.redis.service.VersionStampService;
 
 @Service
 public class ProfileServiceImpl implements ProfileService {
@@ -19,6 +21,10 @@ public class ProfileServiceImpl implements ProfileService {
   private UploadService uploadService;
   @Autowired
   private ProfileRepository profileRepository;
+  @Autowired
+  private VersionStampService versionStampService;
+  @Autowired
+  private ProfileCacheRepository profileCacheRepository;
 
   @Override
   public Profile getUserProfile(UserPrincipal userPrincipal) {
@@ -34,7 +40,13 @@ public class ProfileServiceImpl implements ProfileService {
 
   @Override
   public Profile getUserProfile(int id) {
-    return profileRepository.findById(id).orElseThrow(UserNotFoundException::new);
+    Profile profile = profileCacheRepository.get(id);
+    if (Objects.isNull(profile)) {
+      profile = profileRepository.findById(id).orElseThrow(UserNotFoundException::new);
+      profileCacheRepository.put(profile);
+    }
+    versionStampService.recordProfile(profile);
+    return profile;
   }
 
   @Override
@@ -44,6 +56,8 @@ public class ProfileServiceImpl implements ProfileService {
     profile.setDisplayName(request.getDisplayName());
     profile.setUsername(request.getUsername());
     profileRepository.save(profile);
+    versionStampService.touchProfile(profile);
+    profileCacheRepository.evict(profile.getId());
     return profile;
   }
 
@@ -53,6 +67,8 @@ public class ProfileServiceImpl implements ProfileService {
     Profile profile = this.getUserProfile(userPrincipal);
     profile.setProfileImageUrl(url);
     profileRepository.save(profile);
+    versionStampService.touchProfile(profile);
+    profileCacheRepository.evict(profile.getId());
     return profile;
   }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.engineerpro.example.redis.service.profile;
+
+import java.util.List;
+
+import com.engineerpro.example.redis.model.Profile;
+
+public interface SuggestionService {
+  List<Profile> getSuggestions(int profileId, int limit);
+
+  void recomputeAll();
+}
@@ -0,0 +1,152 @@
+package com.engineerpro.example.redis.service.profile;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.model.Profile;
+import com.engineerpro.example.redis.model.UserFollowing;
+import com.engineerpro.example.redis.repository.FollowerRepository;
+import com.engineerpro.example.redis.repository.JobLockRepository;
+import com.engineerpro.example.redis.repository.ProfileRepository;
+import com.engineerpro.example.redis.repository.SuggestionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class SuggestionServiceImpl implements SuggestionService {
+  private static final String RECOMPUTE_LOCK = "suggestion-recompute";
+
+  @Autowired
+  private FollowerRepository followerRepository;
+
+  @Autowired
+  private ProfileRepository profileRepository;
+
+  @Autowired
+  private SuggestionRepository suggestionRepository;
+
+  @Autowired
+  private JobLockRepository jobLockRepository;
+
+  @Value("${suggestion.top-k:50}")
+  private int topK;
+
+  @Value("${suggestion.max-fan-out:5000}")
+  private int maxFanOut;
+
+  @Value("${suggestion.scan-batch-size:5000}")
+  private int scanBatchSize;
+
+  @Value("${suggestion.chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${suggestion.ttl-hours:48}")
+  private long ttlHours;
+
+  @Value("${suggestion.lock-ttl-ms:3600000}")
+  private long lockTtlMs;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  @Override
+  public List<Profile> getSuggestions(int profileId, int limit) {
+    List<Integer> profileIds = suggestionRepository.getSuggestions(profileId, limit).stream()
+        .map(Long::intValue).toList();
+    Map<Integer, Integer> positions = new HashMap<>();
+    for (int i = 0; i < profileIds.size(); i++) {
+      positions.put(profileIds.get(i), i);
+    }
+    return profileRepository.findAllById(profileIds).stream()
+        .sorted(Comparator.comparingInt(profile -> positions.get(profile.getId())))
+        .toList();
+  }
+
+  /**
+   * Loads the whole follow graph into a {@link FollowGraph} and computes
+   * friends-of-friends suggestions for every profile that follows someone,
+   * one chunk of profile ids per fork-join task.
+   */
+  @Override
+  public void recomputeAll() {
+    if (!running.compareAndSet(false, true)) {
+      log.info("suggestion job already running");
+      return;
+    }
+    long startMillis = System.currentTimeMillis();
+    try {
+      FollowGraph graph = loadGraph();
+      log.info("loaded follow graph profiles={}, edges={}", graph.maxProfileId(), graph.edgeCount());
+      int chunks = graph.maxProfileId() / chunkSize + 1;
+      AtomicLong written = new AtomicLong();
+      ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[graph.maxProfileId() + 1]);
+
+      ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+      try {
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+          int from = Math.max(1, chunk * chunkSize);
+          int to = Math.min(graph.maxProfileId(), (chunk + 1) * chunkSize - 1);
+          Map<Integer, List<Long>> suggestions = new LinkedHashMap<>();
+          for (int profileId = from; profileId <= to; profileId++) {
+            int[] suggested = graph.suggest(profileId, topK, maxFanOut, scratch.get());
+            if (suggested.length > 0) {
+              suggestions.put(profileId, IntStream.of(suggested).asLongStream().boxed().toList());
+            }
+          }
+          suggestionRepository.saveSuggestions(suggestions, ttlHours);
+          written.addAndGet(suggestions.size());
+        })).get();
+      } finally {
+        pool.shutdown();
+      }
+      log.info("suggestion job done profiles={}, tookMs={}", written.get(), System.currentTimeMillis() - startMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("suggestion job interrupted");
+    } catch (ExecutionException e) {
+      log.error("suggestion job failed", e.getCause());
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * Every node fires the cron, but only the one that takes the lease runs the
+   * job; the lease outlives the other nodes' ticks of the same night and then
+   * expires. A recompute started by an admin does not take the lease.
+   */
+  @Scheduled(cron = "${suggestion.cron:0 0 3 * * *}")
+  public void scheduledRecompute() {
+    if (!jobLockRepository.tryLock(RECOMPUTE_LOCK, lockTtlMs)) {
+      log.debug("suggestion job runs on another node");
+      return;
+    }
+    recomputeAll();
+  }
+
+  private FollowGraph loadGraph() {
+    FollowGraph.Builder builder = new FollowGraph.Builder();
+    List<UserFollowing> page = followerRepository.findPageAfter(0, 0, scanBatchSize);
+    while (!page.isEmpty()) {
+      for (UserFollowing userFollowing : page) {
+        builder.add(userFollowing.getFollowerUserId(), userFollowing.getFollowingUserId());
+      }
+      UserFollowing last = page.get(page.size() - 1);
+      page = followerRepository.findPageAfter(last.getFollowerUserId(), last.getFollowingUserId(), scanBatchSize);
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,72 @@
+package com.engineerpro.example.redis.service.trending;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Heavy-hitter counter with exponentially decayed scores. Scores use forward
+ * decay: an event at time t adds {@code weight * e^((t - landmark) / tau)}, so
+ * old entries never need touching and the ranking is the same as with scores
+ * decayed to "now". The candidate table holds at most {@code capacity} posts;
+ * when it fills up, the lower half is dropped, which keeps updates O(1)
+ * amortized and memory bounded no matter how many posts get engagement.
+ */
+public class DecayedTopK {
+  // rescale before e^x gets anywhere near double overflow (~709)
+  private static final double MAX_EXPONENT = 200;
+
+  private final double tauSeconds;
+  private final int capacity;
+  private final Map<Integer, Double> scores = new HashMap<>();
+  private long landmarkSeconds;
+
+  public DecayedTopK(long tauSeconds, int capacity, long nowSeconds) {
+    this.tauSeconds = tauSeconds;
+    this.capacity = capacity;
+    this.landmarkSeconds = nowSeconds;
+  }
+
+  public synchronized void add(int postId, double weight, long nowSeconds) {
+    double exponent = (nowSeconds - landmarkSeconds) / tauSeconds;
+    if (exponent > MAX_EXPONENT) {
+      rescale(nowSeconds);
+      exponent = 0;
+    }
+    scores.merge(postId, weight * Math.exp(exponent), Double::sum);
+    if (scores.size() > capacity) {
+      prune(capacity / 2);
+    }
+  }
+
+  /**
+   * Returns up to {@code k} post ids with their scores decayed to
+   * {@code nowSeconds}, highest first.
+   */
+  public synchronized Map<Integer, Double> top(int k, long nowSeconds) {
+    double decay = Math.exp(-(nowSeconds - landmarkSeconds) / tauSeconds);
+    List<Map.Entry<Integer, Double>> entries = new ArrayList<>(scores.entrySet());
+    entries.sort(Map.Entry.<Integer, Double>comparingByValue().reversed());
+    Map<Integer, Double> top = new LinkedHashMap<>();
+    for (Map.Entry<Integer, Double> entry : entries.subList(0, Math.min(k, entries.size()))) {
+      top.put(entry.getKey(), entry.getValue() * decay);
+    }
+    return top;
+  }
+
+  private void rescale(long nowSeconds) {
+    double decay = Math.exp(-(nowSeconds - landmarkSeconds) / tauSeconds);
+    scores.replaceAll((postId, score) -> score * decay);
+    landmarkSeconds = nowSeconds;
+  }
+
+  private void prune(int keep) {
+    List<Map.Entry<Integer, Double>> entries = new ArrayList<>(scores.entrySet());
+    entries.sort(Map.Entry.<Integer, Double>comparingByValue().reversed());
+    for (Map.Entry<Integer, Double> entry : entries.subList(keep, entries.size())) {
+      scores.remove(entry.getKey());
+    }
+  }
+}
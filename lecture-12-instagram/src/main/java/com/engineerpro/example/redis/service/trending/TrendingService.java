@@ -0,0 +1,7 @@
+package com.engineerpro.example.redis.service.trending;
+
+import java.util.List;
+
+public interface TrendingService {
+  List<Integer> getTrendingPostIds(TrendingWindow window, int limit);
+}
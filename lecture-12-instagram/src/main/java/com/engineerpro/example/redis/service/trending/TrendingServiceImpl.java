@@ -0,0 +1,134 @@
+package com.engineerpro.example.redis.service.trending;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.engineerpro.example.redis.dto.event.AfterCreateCommentEvent;
+import com.engineerpro.example.redis.dto.event.AfterCreatePostEvent;
+import com.engineerpro.example.redis.dto.event.LikePostEvent;
+import com.engineerpro.example.redis.repository.TrendingRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Each node counts the engagement it sees in memory, publishes its top posts
+ * to redis every snapshot interval and reads back the merged ranking of all
+ * nodes. Requests are served from that merged list, so /explore never touches
+ * the like or comment tables.
+ */
+@Slf4j
+@Service
+public class TrendingServiceImpl implements TrendingService {
+  @Autowired
+  private TrendingRepository trendingRepository;
+
+  @Value("${trending.top-k:200}")
+  private int topK;
+
+  @Value("${trending.capacity:20000}")
+  private int capacity;
+
+  @Value("${trending.snapshot-ttl-seconds:120}")
+  private long snapshotTtlSeconds;
+
+  @Value("${trending.weight.post:1}")
+  private double postWeight;
+
+  @Value("${trending.weight.like:2}")
+  private double likeWeight;
+
+  @Value("${trending.weight.comment:3}")
+  private double commentWeight;
+
+  private final Map<TrendingWindow, DecayedTopK> counters = new EnumMap<>(TrendingWindow.class);
+  private final Map<TrendingWindow, List<Integer>> merged = new ConcurrentHashMap<>();
+  private String nodeId;
+
+  @PostConstruct
+  void init() {
+    nodeId = resolveNodeId();
+    long now = nowSeconds();
+    for (TrendingWindow window : TrendingWindow.values()) {
+      DecayedTopK counter = new DecayedTopK(window.getDecaySeconds(), capacity, now);
+      // pick up this node's last snapshot so a restart does not reset trending
+      try {
+        trendingRepository.getNodeSnapshot(windowName(window), nodeId)
+            .forEach((postId, score) -> counter.add(postId, score, now));
+      } catch (Exception e) {
+        log.warn("cannot restore trending snapshot window={}", window, e);
+      }
+      counters.put(window, counter);
+      merged.put(window, List.of());
+    }
+  }
+
+  @Override
+  public List<Integer> getTrendingPostIds(TrendingWindow window, int limit) {
+    List<Integer> postIds = merged.get(window);
+    return postIds.subList(0, Math.min(limit, postIds.size()));
+  }
+
+  @EventListener
+  public void onPostCreated(AfterCreatePostEvent event) {
+    record(event.getPostId(), postWeight);
+  }
+
+  @EventListener
+  public void onPostLiked(LikePostEvent event) {
+    record(event.getPostId(), likeWeight);
+  }
+
+  @EventListener
+  public void onCommentCreated(AfterCreateCommentEvent event) {
+    record(event.getPostId(), commentWeight);
+  }
+
+  @Scheduled(fixedDelayString = "${trending.snapshot-interval-ms:10000}")
+  public void snapshot() {
+    long now = nowSeconds();
+    for (TrendingWindow window : TrendingWindow.values()) {
+      try {
+        trendingRepository.saveNodeSnapshot(windowName(window), nodeId, counters.get(window).top(topK, now),
+            snapshotTtlSeconds);
+        merged.put(window, List.copyOf(trendingRepository.mergeAndGetTop(windowName(window), topK).keySet()));
+      } catch (Exception e) {
+        log.error("cannot snapshot trending window={}", window, e);
+      }
+    }
+  }
+
+  private void record(int postId, double weight) {
+    long now = nowSeconds();
+    for (DecayedTopK counter : counters.values()) {
+      counter.add(postId, weight, now);
+    }
+  }
+
+  private static String windowName(TrendingWindow window) {
+    return window.name().toLowerCase();
+  }
+
+  private static long nowSeconds() {
+    return System.currentTimeMillis() / 1000;
+  }
+
+  private static String resolveNodeId() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      return UUID.randomUUID().toString();
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.engineerpro.example.redis.service.trending;
+
+public enum TrendingWindow {
+  HOUR(3600),
+  DAY(86400);
+
+  // time constant of the exponential decay: an event's weight drops to 1/e
+  // after this many seconds
+  private final long decaySeconds;
+
+  TrendingWindow(long decaySeconds) {
+    this.decaySeconds = decaySeconds;
+  }
+
+  public long getDecaySeconds() {
+    return decaySeconds;
+  }
+}
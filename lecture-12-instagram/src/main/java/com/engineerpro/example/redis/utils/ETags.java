@@ -0,0 +1,77 @@
+package com.engineerpro.example.redis.utils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.engineerpro.example.redis.model.Post;
+
+public class ETags {
+  public static String post(int postId, long state) {
+    return "\"post-" + postId + "-" + Long.toHexString(state) + "\"";
+  }
+
+  public static String post(Post post) {
+    return post(post.getId(), postState(post));
+  }
+
+  /**
+   * A post is served with its author profile embedded, so its tag has to
+   * change with either the post version or the author's profile version.
+   */
+  public static long postState(long version, long authorVersion) {
+    return mix(mix(0, version), authorVersion);
+  }
+
+  public static long postState(Post post) {
+    return postState(post.getVersion(), post.getCreatedBy().getVersion());
+  }
+
+  public static String profile(int profileId, long version) {
+    return "\"profile-" + profileId + "-" + version + "\"";
+  }
+
+  /**
+   * Tag of a feed page, built from the {@link #postState states} of its posts
+   * in id order so it does not depend on the order the posts were loaded in.
+   */
+  public static String feed(Map<Integer, Long> postStates, int totalPage) {
+    long hash = totalPage;
+    for (Map.Entry<Integer, Long> entry : new TreeMap<>(postStates).entrySet()) {
+      hash = mix(hash, entry.getKey());
+      hash = mix(hash, entry.getValue());
+    }
+    return "\"feed-" + Long.toHexString(hash) + "\"";
+  }
+
+  public static String feed(Collection<Post> posts, int totalPage) {
+    Map<Integer, Long> postStates = new TreeMap<>();
+    for (Post post : posts) {
+      postStates.put(post.getId(), postState(post));
+    }
+    return feed(postStates, totalPage);
+  }
+
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (Objects.isNull(ifNoneMatch) || Objects.isNull(etag)) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      candidate = candidate.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long mix(long hash, long value) {
+    hash ^= value;
+    hash *= 0x9E3779B97F4A7C15L;
+    return hash ^ (hash >>> 29);
+  }
+}
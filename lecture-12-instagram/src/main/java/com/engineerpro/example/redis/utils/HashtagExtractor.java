@@ -0,0 +1,30 @@
+package com.engineerpro.example.redis.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class HashtagExtractor {
+  private static final Pattern HASHTAG = Pattern.compile("#([\\p{L}\\p{N}_]{1,100})");
+  private static final int MAX_TAGS_PER_POST = 30;
+
+  public static Set<String> extract(String caption) {
+    Set<String> tags = new LinkedHashSet<>();
+    if (Objects.isNull(caption)) {
+      return tags;
+    }
+    Matcher matcher = HASHTAG.matcher(caption);
+    while (matcher.find() && tags.size() < MAX_TAGS_PER_POST) {
+      tags.add(normalize(matcher.group(1)));
+    }
+    return tags;
+  }
+
+  public static String normalize(String tag) {
+    String normalized = tag.startsWith("#") ? tag.substring(1) : tag;
+    return normalized.toLowerCase(Locale.ROOT);
+  }
+}
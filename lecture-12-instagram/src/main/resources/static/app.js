@@ -8,6 +8,10 @@ stompClient.onConnect = (frame) => {
     stompClient.subscribe('/topic/greetings', (greeting) => {
         showGreeting(JSON.parse(greeting.body).content);
     });
+    stompClient.subscribe('/user/topic/feed', (notice) => {
+        const body = JSON.parse(notice.body);
+        showGreeting(body.newPostCount + " new posts, latest post id " + body.latestPostId);
+    });
 };
 
 stompClient.onWebSocketError = (error) => {
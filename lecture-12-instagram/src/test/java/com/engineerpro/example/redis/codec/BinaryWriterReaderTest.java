@@ -0,0 +1,111 @@
+package com.engineerpro.example.redis.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class BinaryWriterReaderTest {
+
+  @Test
+  public void varintRoundTripsAtByteBoundaries() {
+    long[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+    BinaryWriter writer = new BinaryWriter();
+    for (long value : values) {
+      writer.writeVarint(value);
+    }
+    BinaryReader reader = new BinaryReader(writer.toByteArray());
+    for (long value : values) {
+      assertThat(reader.readVarint()).isEqualTo(value);
+    }
+  }
+
+  @Test
+  public void varintUsesSevenBitsPerByte() {
+    assertThat(varintLength(0)).isEqualTo(1);
+    assertThat(varintLength(127)).isEqualTo(1);
+    assertThat(varintLength(128)).isEqualTo(2);
+    assertThat(varintLength(16384)).isEqualTo(3);
+    assertThat(varintLength(-1)).isEqualTo(10);
+  }
+
+  @Test
+  public void zigzagRoundTripsSignedValues() {
+    long[] values = { 0, -1, 1, -64, 63, -65, 64, Long.MIN_VALUE, Long.MAX_VALUE };
+    BinaryWriter writer = new BinaryWriter();
+    for (long value : values) {
+      writer.writeZigzag(value);
+    }
+    BinaryReader reader = new BinaryReader(writer.toByteArray());
+    for (long value : values) {
+      assertThat(reader.readZigzag()).isEqualTo(value);
+    }
+  }
+
+  @Test
+  public void zigzagKeepsSmallNegativeValuesShort() {
+    assertThat(zigzagBytes(0)).containsExactly(0);
+    assertThat(zigzagBytes(-1)).containsExactly(1);
+    assertThat(zigzagBytes(1)).containsExactly(2);
+    assertThat(zigzagBytes(-64)).containsExactly(127);
+    assertThat(zigzagBytes(64)).hasSize(2);
+  }
+
+  @Test
+  public void stringRoundTripsAsUtf8() {
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeString("");
+    writer.writeString("caption");
+    writer.writeString("H\u00e0 N\u1ed9i \ud83c\udf05");
+    BinaryReader reader = new BinaryReader(writer.toByteArray());
+    assertThat(reader.readString()).isEmpty();
+    assertThat(reader.readString()).isEqualTo("caption");
+    assertThat(reader.readString()).isEqualTo("H\u00e0 N\u1ed9i \ud83c\udf05");
+  }
+
+  @Test
+  public void writerGrowsPastInitialBuffer() {
+    String longValue = "x".repeat(1000);
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeByte(7);
+    writer.writeString(longValue);
+    BinaryReader reader = new BinaryReader(writer.toByteArray());
+    assertThat(reader.readByte()).isEqualTo(7);
+    assertThat(reader.readString()).isEqualTo(longValue);
+  }
+
+  @Test
+  public void truncatedInputIsRejected() {
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeString("caption");
+    byte[] bytes = writer.toByteArray();
+    BinaryReader reader = new BinaryReader(Arrays.copyOf(bytes, bytes.length - 1));
+    assertThatThrownBy(reader::readString).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("truncated entry");
+    assertThatThrownBy(new BinaryReader(new byte[0])::readByte).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(new BinaryReader(new byte[] { (byte) 0x80 })::readVarint)
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void overlongVarintIsRejected() {
+    byte[] bytes = new byte[11];
+    Arrays.fill(bytes, (byte) 0xFF);
+    assertThatThrownBy(new BinaryReader(bytes)::readVarint).isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("malformed varint");
+  }
+
+  private static int varintLength(long value) {
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeVarint(value);
+    return writer.toByteArray().length;
+  }
+
+  private static byte[] zigzagBytes(long value) {
+    BinaryWriter writer = new BinaryWriter();
+    writer.writeZigzag(value);
+    return writer.toByteArray();
+  }
+}
@@ -0,0 +1,107 @@
+package com.engineerpro.example.redis.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.engineerpro.example.redis.model.Post;
+import com.engineerpro.example.redis.model.Profile;
+
+public class CodecRoundTripTest {
+  private final ProfileCodec profileCodec = new ProfileCodec();
+  private final PostCodec postCodec = new PostCodec();
+  private final PostIdListCodec postIdListCodec = new PostIdListCodec();
+
+  private static Profile profile() {
+    return Profile.builder().id(42).userId("user-42").displayName("Nguy\u1ec5n An").username("an")
+        .profileImageUrl("https://cdn.example.com/p/42.jpg").bio("coffee and trains").version(3).build();
+  }
+
+  @Test
+  public void profileRoundTrips() {
+    Profile profile = profile();
+    assertThat(profileCodec.decode(profileCodec.encode(profile))).isEqualTo(profile);
+  }
+
+  @Test
+  public void profileWithoutOptionalFieldsRoundTrips() {
+    Profile profile = Profile.builder().id(7).version(0).build();
+    Profile decoded = profileCodec.decode(profileCodec.encode(profile));
+    assertThat(decoded).isEqualTo(profile);
+    assertThat(decoded.getUserId()).isNull();
+    assertThat(decoded.getBio()).isNull();
+  }
+
+  @Test
+  public void postRoundTrips() {
+    Date createdAt = new Date(1_700_000_000_000L);
+    Post post = Post.builder().id(1001).createdBy(profile()).imageUrl("https://cdn.example.com/i/1001.jpg")
+        .caption("sunrise #hanoi").createdAt(createdAt).lastModifiedAt(new Date(createdAt.getTime() + 90_000))
+        .version(5).build();
+    Post decoded = postCodec.decode(postCodec.encode(post));
+    assertThat(decoded.getId()).isEqualTo(1001);
+    assertThat(decoded.getVersion()).isEqualTo(5);
+    assertThat(decoded.getImageUrl()).isEqualTo(post.getImageUrl());
+    assertThat(decoded.getCaption()).isEqualTo(post.getCaption());
+    assertThat(decoded.getCreatedAt()).isEqualTo(post.getCreatedAt());
+    assertThat(decoded.getLastModifiedAt()).isEqualTo(post.getLastModifiedAt());
+    assertThat(decoded.getCreatedBy()).isEqualTo(post.getCreatedBy());
+  }
+
+  @Test
+  public void postModifiedBeforeCreationRoundTrips() {
+    Date createdAt = new Date(1_700_000_000_000L);
+    Post post = Post.builder().id(1).createdAt(createdAt).lastModifiedAt(new Date(createdAt.getTime() - 1))
+        .build();
+    Post decoded = postCodec.decode(postCodec.encode(post));
+    assertThat(decoded.getLastModifiedAt()).isEqualTo(post.getLastModifiedAt());
+  }
+
+  @Test
+  public void postWithoutOptionalFieldsRoundTrips() {
+    Post post = Post.builder().id(9).version(1).build();
+    Post decoded = postCodec.decode(postCodec.encode(post));
+    assertThat(decoded.getId()).isEqualTo(9);
+    assertThat(decoded.getVersion()).isEqualTo(1);
+    assertThat(decoded.getImageUrl()).isNull();
+    assertThat(decoded.getCaption()).isNull();
+    assertThat(decoded.getCreatedAt()).isNull();
+    assertThat(decoded.getLastModifiedAt()).isNull();
+    assertThat(decoded.getCreatedBy()).isNull();
+  }
+
+  @Test
+  public void unknownSchemaVersionIsRejected() {
+    byte[] profileEntry = profileCodec.encode(profile());
+    profileEntry[0] = (byte) (ProfileCodec.SCHEMA_VERSION + 1);
+    assertThatThrownBy(() -> profileCodec.decode(profileEntry)).isInstanceOf(IllegalArgumentException.class);
+
+    byte[] postEntry = postCodec.encode(Post.builder().id(1).build());
+    postEntry[0] = (byte) (PostCodec.SCHEMA_VERSION + 1);
+    assertThatThrownBy(() -> postCodec.decode(postEntry)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void postIdListRoundTrips() {
+    List<Long> postIds = new ArrayList<>();
+    for (long postId = 500_000; postId > 499_500; postId--) {
+      postIds.add(postId);
+    }
+    postIds.add(3L);
+    postIds.add(900_000L);
+    byte[] packed = postIdListCodec.encode(postIds);
+    assertThat(postIdListCodec.decode(packed)).isEqualTo(postIds);
+    // a mostly descending feed costs about a byte per entry
+    assertThat(packed.length).isLessThan(postIds.size() * 2);
+  }
+
+  @Test
+  public void emptyPostIdListRoundTrips() {
+    assertThat(postIdListCodec.decode(postIdListCodec.encode(List.of()))).isEmpty();
+  }
+}